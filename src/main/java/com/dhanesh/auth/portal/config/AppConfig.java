@@ -1,16 +1,23 @@
 package com.dhanesh.auth.portal.config;
 
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import com.dhanesh.auth.portal.security.jwt.JwtAuthenticationFilter;
 import com.dhanesh.auth.portal.security.jwt.JwtService;
+import com.dhanesh.auth.portal.security.password.BoundedPasswordEncoder;
+import com.dhanesh.auth.portal.security.userdetails.MyUserDetailsService;
+
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 
 /**
@@ -24,27 +31,49 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class AppConfig {
     
-    private final UserDetailsService userDetailsService;
+    private final MyUserDetailsService userDetailsService;
     private final JwtService jwtService;
 
+    @Value("${app.password.bcrypt-strength}")
+    private int bcryptStrength;
+
+    @Value("${app.password.pool-size}")
+    private int hashPoolSize;
+
+    @Value("${app.password.queue-capacity}")
+    private int hashQueueCapacity;
+
     /**
      * Bean for password encoding using BCrypt algorithm.
      * Ensures passwords are stored securely in the database.
+     *
+     * Hashes are prefixed with {bcrypt} through a DelegatingPasswordEncoder; legacy
+     * unprefixed hashes still match and are re-encoded on the next successful login.
+     * All hashing runs on a bounded executor (pool-size 0 = number of CPU cores).
      */
     @Bean 
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        String idForEncode = "bcrypt";
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(idForEncode, Map.of(idForEncode, bcrypt));
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        int poolSize = hashPoolSize > 0 ? hashPoolSize : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(delegating, poolSize, hashQueueCapacity, meterRegistry);
     }
 
     /**
      * DAO-based AuthenticationProvider that uses the custom UserDetailsService
      * and the defined PasswordEncoder for authentication logic.
+     * The UserDetailsService also persists upgraded hashes after login.
      */
     @Bean 
-    public AuthenticationProvider authenticationProvider() {
+    public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
-        provider.setPasswordEncoder(passwordEncoder());
+        provider.setPasswordEncoder(passwordEncoder);
         provider.setUserDetailsService(userDetailsService);
+        provider.setUserDetailsPasswordService(userDetailsService);
         return provider;
     } 
 
@@ -60,9 +89,10 @@ public class AppConfig {
     /**
      * JWT filter that intercepts requests and performs token validation.
      * Added to the security filter chain for request-based security.
+     * Token holders need no credentials, so their users come from the user cache.
      */
     @Bean
     public JwtAuthenticationFilter jwtAuthenticationFilter() {
-        return new JwtAuthenticationFilter(jwtService, userDetailsService);
+        return new JwtAuthenticationFilter(jwtService, userDetailsService::loadCachedUser, PublicEndpoints.MATCHER);
     } 
  }
@@ -0,0 +1,50 @@
+package com.dhanesh.auth.portal.config;
+
+import java.util.List;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import com.dhanesh.auth.portal.entity.Users;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Creates the indexes declared with {@code @Indexed} on the entities below at startup.
+ * <p>
+ * Automatic index creation is off, so these are the schema rules the application
+ * relies on (e.g. unique usernames and emails), created whatever else is enabled.
+ */
+@Slf4j
+@Configuration
+@RequiredArgsConstructor
+public class MongoIndexConfig {
+
+    private static final List<Class<?>> INDEXED_ENTITIES = List.of(Users.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoMappingContext mappingContext;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        IndexResolver resolver = new MongoPersistentEntityIndexResolver(mappingContext);
+        for (Class<?> entity : INDEXED_ENTITIES) {
+            IndexOperations indexOps = mongoTemplate.indexOps(entity);
+            for (IndexDefinition index : resolver.resolveIndexFor(entity)) {
+                try {
+                    indexOps.ensureIndex(index);
+                } catch (RuntimeException ex) {
+                    log.error("Could not create index {} on {}", index.getIndexKeys(), entity.getSimpleName(), ex);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.dhanesh.auth.portal.config;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+/**
+ * Routes that are reachable without authentication.
+ * <p>
+ * Shared by {@link SecurityConfig}, which permits them, and the JWT filter, which
+ * skips token work on them and only resolves the principal if a handler asks for it.
+ * Keeping one list means the two can never disagree about what is public.
+ */
+public final class PublicEndpoints {
+
+    public static final RequestMatcher MATCHER = new OrRequestMatcher(
+        AntPathRequestMatcher.antMatcher("/"),
+        AntPathRequestMatcher.antMatcher("/api/auth/signup"),
+        AntPathRequestMatcher.antMatcher("/api/auth/signin"),
+        AntPathRequestMatcher.antMatcher("/api/auth/request-otp"),
+        AntPathRequestMatcher.antMatcher("/api/auth/verify-otp"),
+        AntPathRequestMatcher.antMatcher(HttpMethod.GET, "/api/auth/otp-status/*"),
+        AntPathRequestMatcher.antMatcher("/api/auth/forgot-password"),
+        AntPathRequestMatcher.antMatcher("/api/auth/reset-password"),
+        AntPathRequestMatcher.antMatcher("/v3/api-docs/**"),
+        AntPathRequestMatcher.antMatcher("/swagger-ui/**"),
+        AntPathRequestMatcher.antMatcher("/swagger-ui.html"),
+        AntPathRequestMatcher.antMatcher(HttpMethod.GET, "/courses"),
+        AntPathRequestMatcher.antMatcher(HttpMethod.POST, "/share-course")
+    );
+
+    private PublicEndpoints() {
+    }
+}
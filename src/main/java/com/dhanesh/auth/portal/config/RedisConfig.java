@@ -1,30 +1,143 @@
 package com.dhanesh.auth.portal.config;
 
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisClusterConfiguration;
 import org.springframework.data.redis.connection.RedisPassword;
+import org.springframework.data.redis.connection.RedisSentinelConfiguration;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import com.dhanesh.auth.portal.dto.auth.SignupTempData;
+import com.dhanesh.auth.portal.model.OtpData;
+import com.dhanesh.auth.portal.model.RedisMode;
+import com.dhanesh.auth.portal.model.RedisValueFormat;
+import com.dhanesh.auth.portal.util.codec.OtpDataCodec;
+import com.dhanesh.auth.portal.util.codec.SignupTempDataCodec;
+import com.dhanesh.auth.portal.util.codec.VersionedRedisSerializer;
+
+import io.lettuce.core.ReadFrom;
+import io.lettuce.core.cluster.ClusterClientOptions;
+import io.lettuce.core.cluster.ClusterTopologyRefreshOptions;
+
 @Configuration
 public class RedisConfig {
 
+    @Value("${spring.data.redis.host}")
+    private String host;
+
+    @Value("${spring.data.redis.port}")
+    private int port;
+
+    @Value("${spring.data.redis.username}")
+    private String username;
+
+    @Value("${spring.data.redis.password}")
+    private String password;
+
+    @Value("${spring.data.redis.ssl.enabled}")
+    private boolean ssl;
+
+    @Value("${app.redis.mode}")
+    private RedisMode mode;
+
+    @Value("${app.redis.nodes}")
+    private List<String> nodes;
+
+    @Value("${app.redis.sentinel.master}")
+    private String sentinelMaster;
+
+    /**
+     * Connection factory for the topology selected by {@code app.redis.mode}.
+     * <p>
+     * standalone uses host/port; sentinel and cluster take their seed nodes from
+     * {@code app.redis.nodes}. Every command goes to the primary, so reads always see
+     * the writes before them.
+     */
     @Bean
-    public RedisConnectionFactory redisConnectionFactory(
-        @Value("${spring.data.redis.host}") String host,
-        @Value("${spring.data.redis.port}") int port,
-        @Value("${spring.data.redis.username}") String username,
-        @Value("${spring.data.redis.password}") String password
-    ) {
-        RedisStandaloneConfiguration config = new RedisStandaloneConfiguration(host, port);
-        config.setUsername(username);
-        config.setPassword(RedisPassword.of(password));
-        return new LettuceConnectionFactory(config);
+    @Primary
+    public RedisConnectionFactory redisConnectionFactory() {
+        return connectionFactory(ReadFrom.UPSTREAM);
+    }
+
+    /**
+     * Connection factory whose read-only commands go where {@code app.redis.read-from}
+     * says (e.g. replicaPreferred). Only for lookups that tolerate replication lag,
+     * through {@link #replicaRedisTemplate}.
+     */
+    @Bean
+    public RedisConnectionFactory replicaRedisConnectionFactory(@Value("${app.redis.read-from}") String readFrom) {
+        return connectionFactory(ReadFrom.valueOf(readFrom));
+    }
+
+    private LettuceConnectionFactory connectionFactory(ReadFrom readFrom) {
+        LettuceClientConfiguration.LettuceClientConfigurationBuilder client = LettuceClientConfiguration.builder();
+        // Setting any ReadFrom switches Lettuce to replica-aware connections, only do it when asked
+        if (readFrom != ReadFrom.UPSTREAM) {
+            client.readFrom(readFrom);
+        }
+        if (ssl) {
+            client.useSsl();
+        }
+
+        return switch (mode) {
+            case STANDALONE -> {
+                RedisStandaloneConfiguration config = new RedisStandaloneConfiguration(host, port);
+                config.setUsername(username);
+                config.setPassword(RedisPassword.of(password));
+                yield new LettuceConnectionFactory(config, client.build());
+            }
+            case SENTINEL -> {
+                RedisSentinelConfiguration config = new RedisSentinelConfiguration(sentinelMaster, new HashSet<>(nodes));
+                config.setUsername(username);
+                config.setPassword(RedisPassword.of(password));
+                yield new LettuceConnectionFactory(config, client.build());
+            }
+            case CLUSTER -> {
+                RedisClusterConfiguration config = new RedisClusterConfiguration(nodes);
+                config.setUsername(username);
+                config.setPassword(RedisPassword.of(password));
+                // Follow slot migrations and failovers without waiting for a MOVED error
+                client.clientOptions(ClusterClientOptions.builder()
+                    .topologyRefreshOptions(ClusterTopologyRefreshOptions.builder()
+                        .enableAllAdaptiveRefreshTriggers()
+                        .enablePeriodicRefresh(Duration.ofMinutes(1))
+                        .build())
+                    .build());
+                yield new LettuceConnectionFactory(config, client.build());
+            }
+        };
+    }
+
+    @Bean
+    @Primary
+    public StringRedisTemplate stringRedisTemplate(RedisConnectionFactory connectionFactory) {
+        return new StringRedisTemplate(connectionFactory);
+    }
+
+    /**
+     * String template reading from replicas per {@code app.redis.read-from}. Status
+     * lookups that are polled and may be a moment behind use it; anything that reads
+     * its own writes stays on {@link #stringRedisTemplate}.
+     */
+    @Bean
+    public StringRedisTemplate replicaRedisTemplate(@Qualifier("replicaRedisConnectionFactory") RedisConnectionFactory connectionFactory) {
+        return new StringRedisTemplate(connectionFactory);
     }
 
     @Bean
@@ -35,4 +148,45 @@ public class RedisConfig {
         template.setValueSerializer(new GenericJackson2JsonRedisSerializer());
         return template;
     }
+
+    /**
+     * Template for OTP entries ({@link com.dhanesh.auth.portal.service.Redis.RedisKeys#otp}), encoded per {@code app.redis.codec.otp}.
+     * Both formats are always readable, so the setting can change during a rolling deploy.
+     */
+    @Bean
+    public RedisTemplate<String, OtpData> otpRedisTemplate(
+        RedisConnectionFactory connectionFactory,
+        @Value("${app.redis.codec.otp}") RedisValueFormat format
+    ) {
+        return namespaceTemplate(connectionFactory, new VersionedRedisSerializer<>(OtpData.class, new OtpDataCodec(), format));
+    }
+
+    /**
+     * Template for pending signups ({@link com.dhanesh.auth.portal.service.Redis.RedisKeys#signupSession}), encoded per {@code app.redis.codec.signup}.
+     */
+    @Bean
+    public RedisTemplate<String, SignupTempData> signupRedisTemplate(
+        RedisConnectionFactory connectionFactory,
+        @Value("${app.redis.codec.signup}") RedisValueFormat format
+    ) {
+        return namespaceTemplate(connectionFactory, new VersionedRedisSerializer<>(SignupTempData.class, new SignupTempDataCodec(), format));
+    }
+
+    private static <T> RedisTemplate<String, T> namespaceTemplate(RedisConnectionFactory connectionFactory, RedisSerializer<T> valueSerializer) {
+        RedisTemplate<String, T> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setValueSerializer(valueSerializer);
+        return template;
+    }
+
+    /**
+     * Container for Redis pub/sub listeners (e.g. cross-node cache invalidation).
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
 }
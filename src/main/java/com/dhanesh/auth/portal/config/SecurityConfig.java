@@ -3,7 +3,6 @@ package com.dhanesh.auth.portal.config;
 import org.springframework.security.config.Customizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
@@ -16,6 +15,7 @@ import lombok.RequiredArgsConstructor;
  * Security configuration class that defines the security filter chain for the application.
  * Configures stateless session management, JWT authentication, public endpoints, and 
  * role-based access control for protected resources.
+ * Public endpoints are listed in {@link PublicEndpoints}.
  */
 @Configuration
 @RequiredArgsConstructor
@@ -41,21 +41,8 @@ public class SecurityConfig {
             .sessionManagement(session -> 
                 session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
-                .requestMatchers(
-                    "/", 
-                    "/api/auth/signup", 
-                    "/api/auth/signin", 
-                    "/api/auth/request-otp", 
-                    "/api/auth/verify-otp", 
-                    "/api/auth/forgot-password", 
-                    "/api/auth/reset-password",
-                    "/v3/api-docs/**",
-                    "/swagger-ui/**",
-                    "/swagger-ui.html"
-                ).permitAll()
-                .requestMatchers(HttpMethod.GET, "/courses").permitAll()
-                .requestMatchers(HttpMethod.POST, "/share-course").permitAll()
-                .requestMatchers("/admin/**").hasRole("ADMIN")
+                .requestMatchers(PublicEndpoints.MATCHER).permitAll()
+                .requestMatchers("/admin/**", "/actuator/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
             )
             .authenticationProvider(authenticationProvider)
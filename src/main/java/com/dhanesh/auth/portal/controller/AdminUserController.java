@@ -1,15 +1,20 @@
 package com.dhanesh.auth.portal.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
+import com.dhanesh.auth.portal.dto.admin.UserImportJob;
 import com.dhanesh.auth.portal.entity.Users;
 import com.dhanesh.auth.portal.service.AdminUserService;
+import com.dhanesh.auth.portal.service.UserImportService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -17,7 +22,8 @@ import org.springframework.web.bind.annotation.*;
 
 /**
  * Controller for handling administrative user management actions
- * such as promoting users to admin, listing all users, and deleting users.
+ * such as promoting users to admin, listing all users, deleting users and
+ * bulk importing users.
  * 
  * All endpoints in this controller require ROLE_ADMIN access.
  */
@@ -29,6 +35,7 @@ import org.springframework.web.bind.annotation.*;
 public class AdminUserController {
 
     private final AdminUserService adminUserService;
+    private final UserImportService userImportService;
 
     /**
      * Promotes a user to ADMIN role using the given username.
@@ -87,4 +94,54 @@ public class AdminUserController {
             ? ResponseEntity.noContent().build()
             : ResponseEntity.status(HttpStatus.BAD_REQUEST).body("User Not Found");
     }
+
+    /**
+     * Starts a bulk import of verified local users from a CSV (header line with
+     * username, email, password and optional role columns) or NDJSON upload.
+     * Everyone is imported as USER, rows asking for another role are rejected.
+     * The upload is imported in the background; poll the returned job for progress.
+     *
+     * @param contentType text/csv or application/x-ndjson
+     * @param body        the uploaded users
+     * @return 202 Accepted with the queued job
+     */
+    @Operation(
+        summary = "Bulk import users",
+        description = "Queues a CSV or NDJSON upload of users for import and returns the job to poll"
+    )
+    @PostMapping(value = "/users/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<UserImportJob> importUsers(
+        @RequestHeader(HttpHeaders.CONTENT_TYPE)
+        @Parameter(hidden = true)
+        String contentType,
+
+        @Parameter(hidden = true)
+        InputStream body
+    ) throws IOException {
+        UserImportService.Format format = contentType.startsWith("text/csv")
+            ? UserImportService.Format.CSV
+            : UserImportService.Format.NDJSON;
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(userImportService.start(body, format));
+    }
+
+    /**
+     * Returns the progress of a bulk import: row counters, throughput and row errors.
+     *
+     * @param jobId the id returned when the import was started
+     * @return the job, or 404 Not Found if it is unknown or expired
+     */
+    @Operation(
+        summary = "Bulk import status",
+        description = "Returns progress, throughput and per-row errors of a bulk user import"
+    )
+    @GetMapping("/users/import/{jobId}")
+    public ResponseEntity<UserImportJob> importStatus(
+        @PathVariable
+        @Parameter(description = "Id of the import job", required = true)
+        String jobId
+    ) {
+        return userImportService.status(jobId)
+            .map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
 }
@@ -1,9 +1,13 @@
 package com.dhanesh.auth.portal.controller;
 
 import java.time.Instant;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Optional;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import com.dhanesh.auth.portal.dto.auth.ResetPasswordRequest;
@@ -15,7 +19,9 @@ import com.dhanesh.auth.portal.dto.otp.OtpRequest;
 import com.dhanesh.auth.portal.dto.otp.OtpValidationResult;
 import com.dhanesh.auth.portal.dto.otp.OtpVerifyRequest;
 import com.dhanesh.auth.portal.model.OtpPurpose;
+import com.dhanesh.auth.portal.model.RateLimitDecision;
 import com.dhanesh.auth.portal.security.jwt.JwtService;
+import com.dhanesh.auth.portal.security.userdetails.UserPrincipal;
 import com.dhanesh.auth.portal.service.AuthService;
 import com.dhanesh.auth.portal.service.OtpService;
 import com.dhanesh.auth.portal.service.Redis.RedisRateLimitService;
@@ -66,9 +72,11 @@ public class AuthController {
     public ResponseEntity<SigninResponse> signin(
         @Valid @RequestBody 
         @Parameter(description = "Signin request with email and password") 
-        SigninRequest signinRequest
+        SigninRequest signinRequest,
+
+        @Parameter(hidden = true) HttpServletRequest servletRequest
     ) {
-        SigninResponse response = userService.signin(signinRequest);
+        SigninResponse response = userService.signin(signinRequest, userService.getClientIp(servletRequest));
         return ResponseEntity.ok(response);
     }
 
@@ -87,7 +95,8 @@ public class AuthController {
         if (!otpValidation.valid()) {
             return ResponseEntity.badRequest().body(Map.of(
                 "verified", false,
-                "message", otpValidation.message()
+                "message", otpValidation.message(),
+                "attempts_remaining", otpValidation.attemptsRemaining()
             ));
         }
 
@@ -125,14 +134,18 @@ public class AuthController {
     ) {
         String clientIp = userService.getClientIp(servletRequest);
 
-        if (!rateLimitService.isAllowed(clientIp)) {
+        RateLimitDecision rateLimit = rateLimitService.check(clientIp);
+
+        if (rateLimit.outcome() == RateLimitDecision.Outcome.RATE_LIMITED) {
             return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(rateLimit.retryAfterSeconds()))
                 .body(Map.of("success", false, "message", "Too many OTP requests from this IP. Try again later.", "timestamp", Instant.now()));
         }
 
-        if (rateLimitService.isInCooldown(clientIp)) {
-            long cooldown = rateLimitService.getCooldownRemaining(clientIp);
+        if (rateLimit.outcome() == RateLimitDecision.Outcome.COOLDOWN) {
+            long cooldown = rateLimit.retryAfterSeconds();
             return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(cooldown))
                 .body(Map.of(
                     "success", false,
                     "cooldown_remaining", cooldown,
@@ -150,12 +163,61 @@ public class AuthController {
                     .body(Map.of("success", false, "message", "The email is already verified", "timestamp", Instant.now()));
         }
 
-        if (otpService.sendOtp(request)) {
-            return ResponseEntity.ok(Map.of("success", true, "message", "OTP sent successfully to your email", "timestamp", Instant.now()));
-        } else {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(Map.of("success", false, "message", "Failed to send OTP. Please try again later.", "timestamp", Instant.now()));
-        }
+        Optional<String> mailId = otpService.sendOtp(request);
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("success", true);
+        body.put("message", "OTP sent successfully to your email");
+        mailId.ifPresent(id -> body.put("mailId", id));
+        body.put("timestamp", Instant.now());
+        return ResponseEntity.ok(body);
+    }
+
+    /**
+     * Reports the delivery status of an OTP mail queued on the outbox.
+     */
+    @Operation(summary = "OTP mail status", description = "Returns PENDING, RETRYING, SENT or DEAD for the mailId returned by request-otp.")
+    @GetMapping("/otp-status/{mailId}")
+    public ResponseEntity<Map<String, Object>> otpStatus(
+        @PathVariable
+        @Parameter(description = "Mail id returned by request-otp") String mailId
+    ) {
+        return otpService.mailStatus(mailId)
+            .<ResponseEntity<Map<String, Object>>>map(status -> ResponseEntity.ok(
+                Map.of("mailId", mailId, "status", status, "timestamp", Instant.now())))
+            .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(Map.of("success", false, "message", "Unknown or expired mail id", "timestamp", Instant.now())));
+    }
+
+    /**
+     * Logs out by revoking the token used for this request.
+     */
+    @Operation(summary = "Logout", description = "Revokes the current JWT before it expires.")
+    @PostMapping("/logout")
+    public ResponseEntity<Map<String, Object>> logout(
+        @RequestHeader("Authorization")
+        @Parameter(hidden = true)
+        String authHeader
+    ) {
+        userService.logout(authHeader);
+        return ResponseEntity.ok(Map.of("message", "Logged out successfully.", "timestamp", Instant.now()));
+    }
+
+    /**
+     * Logs out everywhere by revoking every token issued to the current user.
+     */
+    @Operation(summary = "Logout everywhere", description = "Revokes all JWTs issued to the current user.")
+    @PostMapping("/logout-all")
+    public ResponseEntity<Map<String, Object>> logoutAll(
+        @AuthenticationPrincipal
+        @Parameter(hidden = true) UserPrincipal principal,
+
+        @RequestHeader("Authorization")
+        @Parameter(hidden = true)
+        String authHeader
+    ) {
+        userService.logoutAll(principal.getUser(), authHeader);
+        return ResponseEntity.ok(Map.of("message", "Logged out from all devices.", "timestamp", Instant.now()));
     }
 
     /**
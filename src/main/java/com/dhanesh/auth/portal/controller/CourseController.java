@@ -3,10 +3,12 @@ package com.dhanesh.auth.portal.controller;
 import java.util.List;
 import java.util.Optional;
 
+import com.dhanesh.auth.portal.dto.CourseSuggestion;
 import com.dhanesh.auth.portal.dto.FilterCourseRequest;
 import com.dhanesh.auth.portal.entity.Course;
 import com.dhanesh.auth.portal.security.userdetails.UserPrincipal;
 import com.dhanesh.auth.portal.service.CourseService;
+import com.dhanesh.auth.portal.service.CourseSuggestService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -24,6 +26,7 @@ import org.springframework.web.bind.annotation.*;
  * Controller for public course-related actions including:
  * - Pagination
  * - Search
+ * - Search suggestions
  * - Filter
  * - Share link access
  */
@@ -34,6 +37,7 @@ import org.springframework.web.bind.annotation.*;
 public class CourseController {
 
     private final CourseService courseService;
+    private final CourseSuggestService courseSuggestService;
 
     /**
      * Returns paginated list of all available courses.
@@ -56,27 +60,64 @@ public class CourseController {
 
     /**
      * Performs search on courses by query string (used in search bar).
+     * Results are ranked by relevance, title matches first.
      *
-     * @param q the search term
+     * @param q        the search term
+     * @param language optional course language
+     * @param fuzzy    whether to tolerate misspelled words (default = false)
+     * @param page     the page number (default = 0)
+     * @param size     the number of courses per page (default = 10)
      * @return list of matching courses
      */
-    @Operation(summary = "Search courses", description = "Searches for courses by a keyword or phrase")
+    @Operation(summary = "Search courses", description = "Full-text search over title, tags, tutor and description, ranked by relevance")
     @GetMapping("/search")
     public ResponseEntity<List<Course>> searchCourses(
         @RequestParam 
-        @Parameter(description = "Search query (e.g. Java, Spring)") String q
+        @Parameter(description = "Search query (e.g. Java, Spring)") String q,
+
+        @RequestParam(required = false)
+        @Parameter(description = "Only return courses in this language (optional)") String language,
+
+        @RequestParam(defaultValue = "false")
+        @Parameter(description = "Tolerate misspelled words, e.g. pyhton (default = false)") boolean fuzzy,
+
+        @RequestParam(defaultValue = "0") 
+        @Parameter(description = "Page number (default = 0)") int page,
+
+        @RequestParam(defaultValue = "10") 
+        @Parameter(description = "Number of courses per page (default = 10)") int size
+    ) {
+        return ResponseEntity.ok(courseService.searchCourses(q, language, fuzzy, page, size));
+    }
+
+    /**
+     * Returns typeahead suggestions (course titles, tutors and tags) for what the
+     * user has typed so far, most popular first.
+     *
+     * @param prefix the text typed so far
+     * @param limit  maximum number of suggestions (default = 10)
+     * @return list of suggestions
+     */
+    @Operation(summary = "Suggest completions", description = "Returns popular course titles, tutors and tags matching a prefix, for the search bar")
+    @GetMapping("/suggest")
+    public ResponseEntity<List<CourseSuggestion>> suggest(
+        @RequestParam
+        @Parameter(description = "Text typed so far (e.g. spr)") String prefix,
+
+        @RequestParam(defaultValue = "10")
+        @Parameter(description = "Maximum number of suggestions (default = 10)") int limit
     ) {
-        return ResponseEntity.ok(courseService.searchCourses(q));
+        return ResponseEntity.ok(courseSuggestService.suggest(prefix, limit));
     }
 
     /**
      * Filters courses based on user's preferences (domain, difficulty, platform, etc.)
      *
      * @param principal the authenticated user
-     * @param request the filter options
-     * @return filtered course list
+     * @param request the filter options and the page to return
+     * @return the page of filtered courses, best matches first
      */
-    @Operation(summary = "Filter courses", description = "Filters courses based on preferences like domain, platform, difficulty, etc.")
+    @Operation(summary = "Filter courses", description = "Filters courses based on preferences like domain, platform, difficulty, etc., ranked for the user and paginated")
     @PostMapping("/filter")
     public ResponseEntity<List<Course>> filterCourses(
             @AuthenticationPrincipal 
@@ -0,0 +1,9 @@
+package com.dhanesh.auth.portal.dto;
+
+import com.dhanesh.auth.portal.model.SuggestionType;
+
+public record CourseSuggestion(
+    String text,
+    SuggestionType type,
+    long weight
+) {}
@@ -4,10 +4,20 @@ import java.util.List;
 
 import com.dhanesh.auth.portal.model.DifficultyLevel;
 
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+
 public record FilterCourseRequest(
         List<String> tags, 
         List<String> platforms, 
         DifficultyLevel difficulty, 
-        String duration
+        String duration,
+        @Min(0) @Max(1000) Integer page,    // default 0; ranking keeps every course up to the page in memory
+        @Min(1) @Max(100) Integer size  // default 10
     ) {
+
+    public FilterCourseRequest {
+        page = page == null ? 0 : page;
+        size = size == null ? 10 : size;
+    }
 }
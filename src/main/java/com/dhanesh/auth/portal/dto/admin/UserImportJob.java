@@ -0,0 +1,23 @@
+package com.dhanesh.auth.portal.dto.admin;
+
+import java.time.Instant;
+import java.util.List;
+
+import com.dhanesh.auth.portal.model.ImportJobStatus;
+
+/**
+ * Progress of a bulk user import. Row errors are capped, the counters are not.
+ */
+public record UserImportJob(
+    String jobId,
+    ImportJobStatus status,
+    long processed,
+    long imported,
+    long conflicts,
+    long invalid,
+    double rowsPerSecond,
+    Instant startedAt,
+    Instant finishedAt,
+    String message,
+    List<String> errors
+) {}
@@ -0,0 +1,13 @@
+package com.dhanesh.auth.portal.dto.admin;
+
+/**
+ * One user of a bulk import, as read from a CSV line or an NDJSON object.
+ * The password is either plain text or an already encoded {@code {bcrypt}} hash.
+ * The role may only be USER (or left empty).
+ */
+public record UserImportRow(
+    String username,
+    String email,
+    String password,
+    String role
+) {}
@@ -1,3 +1,26 @@
 package com.dhanesh.auth.portal.dto.otp;
 
-public record OtpValidationResult(boolean valid, String message){}
+public record OtpValidationResult(boolean valid, String message, Status status, long attemptsRemaining) {
+
+    public enum Status {
+        VERIFIED,
+        EXPIRED,
+        PURPOSE_MISMATCH,
+        WRONG_OTP,
+        ATTEMPTS_EXHAUSTED
+    }
+
+    /**
+     * Builds the result for a verification outcome with its user-facing message.
+     */
+    public static OtpValidationResult of(Status status, long attemptsRemaining) {
+        String message = switch (status) {
+            case VERIFIED -> "verified successfully";
+            case EXPIRED -> "otp is expired, request for the new one";
+            case PURPOSE_MISMATCH -> "otp purpose mismatch";
+            case WRONG_OTP -> "wrong otp";
+            case ATTEMPTS_EXHAUSTED -> "too many wrong attempts, request for the new one";
+        };
+        return new OtpValidationResult(status == Status.VERIFIED, message, status, attemptsRemaining);
+    }
+}
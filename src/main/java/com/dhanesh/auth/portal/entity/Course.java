@@ -4,6 +4,8 @@ import lombok.*;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -32,4 +34,8 @@ public class Course {
 
     private long shareCount;
     private long saveCount;
+
+    // Text search analyzer for this course, derived from language
+    @JsonIgnore
+    private String searchLanguage;
 }
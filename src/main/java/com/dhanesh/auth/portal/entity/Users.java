@@ -4,6 +4,7 @@ import java.time.Instant;
 
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import com.dhanesh.auth.portal.model.AuthProvider;
@@ -17,10 +18,13 @@ public class Users {
     @Id
     private String id;  // MongoDB uses String-based ObjectId
 
+    // Unique, so concurrent signups or imports cannot create the same account twice
+    @Indexed(name = "unique_username", unique = true)
     private String username;
 
     private String password;
 
+    @Indexed(name = "unique_email", unique = true)
     private String email;
 
     private String role;
@@ -0,0 +1,7 @@
+package com.dhanesh.auth.portal.exception;
+
+public class PasswordHashingUnavailableException extends RuntimeException {
+    public PasswordHashingUnavailableException(String message) {
+        super(message);
+    }
+}
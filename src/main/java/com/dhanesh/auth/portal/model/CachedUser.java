@@ -0,0 +1,41 @@
+package com.dhanesh.auth.portal.model;
+
+import com.dhanesh.auth.portal.entity.Users;
+
+/**
+ * Snapshot of the {@link Users} fields needed to build a UserPrincipal for a request
+ * already authenticated by its token. Stored in the local and Redis user caches
+ * instead of the full document. Never holds the password hash: sign-in reads
+ * credentials from MongoDB, so a stale entry cannot keep an old password working.
+ */
+public record CachedUser(
+    String id,
+    String username,
+    String email,
+    String role,
+    boolean verified,
+    AuthProvider authProvider
+) {
+
+    public static CachedUser from(Users user) {
+        return new CachedUser(
+            user.getId(),
+            user.getUsername(),
+            user.getEmail(),
+            user.getRole(),
+            user.isVerified(),
+            user.getAuthProvider()
+        );
+    }
+
+    public Users toUser() {
+        Users user = new Users();
+        user.setId(id);
+        user.setUsername(username);
+        user.setEmail(email);
+        user.setRole(role);
+        user.setVerified(verified);
+        user.setAuthProvider(authProvider);
+        return user;
+    }
+}
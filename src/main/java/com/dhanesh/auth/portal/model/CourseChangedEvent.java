@@ -0,0 +1,17 @@
+package com.dhanesh.auth.portal.model;
+
+import com.dhanesh.auth.portal.entity.Course;
+
+/**
+ * Published after a course is created, updated or deleted.
+ *
+ * @param courseId the changed course
+ * @param course   the course as saved, or null if it was deleted
+ * @param remote   true if the change was made on another node and relayed here
+ */
+public record CourseChangedEvent(String courseId, Course course, boolean remote) {
+
+    public CourseChangedEvent(String courseId, Course course) {
+        this(courseId, course, false);
+    }
+}
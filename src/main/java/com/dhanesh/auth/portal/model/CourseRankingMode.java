@@ -0,0 +1,15 @@
+package com.dhanesh.auth.portal.model;
+
+/**
+ * Where personalized course ranking is computed.
+ */
+public enum CourseRankingMode {
+    /** Scoring fields of every match are streamed and ranked in the application. */
+    JVM,
+    /** MongoDB scores, sorts and pages the matches; only the page is transferred. */
+    AGGREGATION,
+    /** Filters and scores the in-memory catalog snapshot; only the page is loaded. */
+    SNAPSHOT,
+    /** Serves the JVM ranking and compares the aggregation page against it. */
+    VERIFY
+}
@@ -0,0 +1,11 @@
+package com.dhanesh.auth.portal.model;
+
+/**
+ * Lifecycle of a bulk user import job.
+ */
+public enum ImportJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,11 @@
+package com.dhanesh.auth.portal.model;
+
+/**
+ * Delivery status of a mail queued on the outbox.
+ */
+public enum MailStatus {
+    PENDING,
+    RETRYING,
+    SENT,
+    DEAD
+}
@@ -0,0 +1,11 @@
+package com.dhanesh.auth.portal.model;
+
+/**
+ * Windowing strategy of the OTP request limiter.
+ */
+public enum RateLimitAlgorithm {
+    /** Counter that resets when its window expires; cheap but allows bursts at window edges. */
+    FIXED_WINDOW,
+    /** Log of request times over the trailing window; exact but stores one entry per request. */
+    SLIDING_WINDOW
+}
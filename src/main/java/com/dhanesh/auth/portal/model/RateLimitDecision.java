@@ -0,0 +1,21 @@
+package com.dhanesh.auth.portal.model;
+
+/**
+ * Result of a single OTP rate limit check.
+ *
+ * @param outcome           whether the request may proceed, and if not, why
+ * @param retryAfterSeconds seconds until the blocking limit clears (0 when allowed)
+ * @param remaining         requests left in the current window
+ */
+public record RateLimitDecision(Outcome outcome, long retryAfterSeconds, long remaining) {
+
+    public enum Outcome {
+        ALLOWED,
+        RATE_LIMITED,
+        COOLDOWN
+    }
+
+    public boolean isAllowed() {
+        return outcome == Outcome.ALLOWED;
+    }
+}
@@ -0,0 +1,10 @@
+package com.dhanesh.auth.portal.model;
+
+/**
+ * Redis deployment topology the application connects to.
+ */
+public enum RedisMode {
+    STANDALONE,
+    SENTINEL,
+    CLUSTER
+}
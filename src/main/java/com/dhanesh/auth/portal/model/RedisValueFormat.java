@@ -0,0 +1,11 @@
+package com.dhanesh.auth.portal.model;
+
+/**
+ * Encoding used when writing values of a Redis key namespace.
+ */
+public enum RedisValueFormat {
+    /** Jackson JSON with embedded class names, the original format */
+    JSON,
+    /** Versioned MessagePack, see VersionedRedisSerializer */
+    BINARY
+}
@@ -0,0 +1,10 @@
+package com.dhanesh.auth.portal.model;
+
+/**
+ * Outcome of atomically reserving a username and email for a pending signup.
+ */
+public enum SignupReservation {
+    RESERVED,
+    EMAIL_PENDING,
+    USERNAME_TAKEN
+}
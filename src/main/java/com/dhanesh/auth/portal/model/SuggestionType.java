@@ -0,0 +1,10 @@
+package com.dhanesh.auth.portal.model;
+
+/**
+ * Which course field a typeahead suggestion comes from.
+ */
+public enum SuggestionType {
+    TITLE,
+    TUTOR,
+    TAG
+}
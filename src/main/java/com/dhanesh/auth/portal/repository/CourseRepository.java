@@ -5,12 +5,9 @@ import org.springframework.stereotype.Repository;
 
 import com.dhanesh.auth.portal.entity.Course;
 
-import java.util.List;
-
 @Repository
 public interface CourseRepository extends MongoRepository<Course, String> {
 
-    // Search Bar 
-    List<Course> findByTitleContainingIgnoreCaseOrTutorContainingIgnoreCase(String title, String tutor);
+    // Search bar queries go through CourseSearchService and the text index
 }
  
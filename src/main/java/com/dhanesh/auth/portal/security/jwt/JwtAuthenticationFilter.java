@@ -1,14 +1,23 @@
 package com.dhanesh.auth.portal.security.jwt;
 
 import java.io.IOException;
+import java.util.function.Supplier;
 
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolderStrategy;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.util.function.SingletonSupplier;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import io.jsonwebtoken.JwtException;
+
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -20,12 +29,18 @@ import org.springframework.lang.NonNull;
 /**
  * Filter that intercepts every request to check for a valid JWT token.
  * If valid, it sets the authentication in the SecurityContext.
+ * <p>
+ * On public routes the token is not touched up front: the security context is
+ * deferred and the principal is only resolved if something reads it, such as a
+ * handler taking an optional {@code @AuthenticationPrincipal}. A bad token on a
+ * public route then simply leaves the request anonymous.
  */
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final RequestMatcher publicEndpoints;
 
     @Override
     @SuppressWarnings("")
@@ -47,22 +62,92 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // Extract the token by removing the "Bearer " prefix
         String token = authHeader.substring(7);
 
-        // Extract username or email (loginId) from the token
-        String loginId = jwtService.extractLoginId(token);
-
-        // If token is malformed or already authenticated, skip further processing
-        if (loginId == null || SecurityContextHolder.getContext().getAuthentication() != null) {
+        if (publicEndpoints.matches(request)) {
+            deferAuthentication(request, token);
             filterChain.doFilter(request, response);
             return;
         }
 
-        // Load user details from DB or memory using UserDetailsService
-        UserDetails userDetails = userDetailsService.loadUserByUsername(loginId);
+        // If already authenticated, skip further processing
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            Authentication authentication = authenticate(request, token);
+            if (authentication != null) {
+                // Set the authenticated user in the SecurityContext
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            }
+        }
+
+        // Continue the filter chain
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Wraps the current deferred context so the token is only verified, and the user
+     * only loaded, the first time the authentication is read during this request.
+     */
+    private void deferAuthentication(HttpServletRequest request, String token) {
+        SecurityContextHolderStrategy strategy = SecurityContextHolder.getContextHolderStrategy();
+        Supplier<SecurityContext> current = strategy.getDeferredContext();
+
+        strategy.setDeferredContext(SingletonSupplier.of(() -> {
+            SecurityContext context = current.get();
+            if (context.getAuthentication() != null) {
+                return context;
+            }
+
+            Authentication authentication;
+            try {
+                authentication = authenticate(request, token);
+            } catch (JwtException | UsernameNotFoundException ex) {
+                authentication = null;
+            }
+            if (authentication == null) {
+                return context;
+            }
+
+            SecurityContext authenticated = strategy.createEmptyContext();
+            authenticated.setAuthentication(authentication);
+            return authenticated;
+        }));
+    }
+
+    /**
+     * Verifies the token and builds the authentication for it.
+     *
+     * @return the authentication, or null if the token is revoked or does not match the user
+     */
+    private Authentication authenticate(HttpServletRequest request, String token) {
+        // Parse and verify the token once for the whole request
+        VerifiedToken verifiedToken = jwtService.verify(token);
+
+        // Extract username or email (loginId) from the token
+        String loginId = verifiedToken.subject();
+
+        // If token is malformed, skip further processing
+        if (loginId == null) {
+            return null;
+        }
+
+        // Reject tokens revoked by logout (answered locally unless probably revoked)
+        // and tokens revoked by a role change, deletion, password reset or logout-all
+        if (jwtService.isRevoked(verifiedToken)
+                || (jwtService.hasPrincipalClaims(verifiedToken) && !jwtService.isTokenVersionCurrent(verifiedToken))) {
+            return null;
+        }
+
+        UserDetails userDetails;
+
+        if (jwtService.isStatelessPrincipal() && jwtService.hasPrincipalClaims(verifiedToken)) {
+            // Rebuild the principal from the token claims, no database hit
+            userDetails = jwtService.toPrincipal(verifiedToken);
+        } else {
+            // Load user details from DB or memory using UserDetailsService
+            userDetails = userDetailsService.loadUserByUsername(loginId);
+        }
 
         // Validate token against the user details
-        if (!jwtService.validateToken(token, userDetails)) {
-            filterChain.doFilter(request, response);
-            return;
+        if (!jwtService.validateToken(verifiedToken, userDetails)) {
+            return null;
         }
 
         // Create an authentication token for the current request
@@ -75,11 +160,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         // Attach request-specific details (like IP, session ID, etc.)
         authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-
-        // Set the authenticated user in the SecurityContext
-        SecurityContextHolder.getContext().setAuthentication(authToken);
-
-        // Continue the filter chain
-        filterChain.doFilter(request, response);
+        return authToken;
     }
 }
@@ -1,7 +1,13 @@
 package com.dhanesh.auth.portal.security.jwt;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
-import java.util.function.Function;
+import java.util.UUID;
 
 import javax.crypto.SecretKey;
 
@@ -10,17 +16,27 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import com.dhanesh.auth.portal.entity.Users;
+import com.dhanesh.auth.portal.model.AuthProvider;
+import com.dhanesh.auth.portal.security.userdetails.UserPrincipal;
+import com.dhanesh.auth.portal.service.Redis.RedisTokenRevocationService;
+import com.dhanesh.auth.portal.service.Redis.RedisTokenVersionService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 
-import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 
 /**
  * Service for handling all JWT-related operations such as generation,
  * validation, and claim extraction.
  */
 @Service
+@RequiredArgsConstructor
 public class JwtService {
 
     @Value("${jwt.secret}")
@@ -29,31 +45,108 @@ public class JwtService {
     @Value("${jwt.expiration}")
     private long expiration; // in milliseconds (e.g., 86400000 = 1 day)
 
+    @Value("${jwt.cache.max-size}")
+    private long cacheMaxSize;
+
+    @Value("${jwt.stateless-principal}")
+    private boolean statelessPrincipal;
+
+    private final RedisTokenVersionService tokenVersionService;
+    private final RedisTokenRevocationService revocationService;
+
+    private SecretKey key;
+    private JwtParser parser;
+
+    // Verified tokens keyed by SHA-256 digest, each entry expires together with its token
+    private Cache<String, VerifiedToken> verifiedTokens;
+
+    /**
+     * Decodes the signing key and builds the parser once instead of on every call.
+     */
+    @PostConstruct
+    void init() {
+        this.key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        this.parser = Jwts.parser()
+                .verifyWith(key) // Verify the signature
+                .build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String digest, VerifiedToken token, long currentTime) {
+                        if (token.expiresAt() == null) {
+                            return Duration.ofMillis(expiration).toNanos();
+                        }
+                        return Math.max(0, Duration.between(Instant.now(), token.expiresAt()).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String digest, VerifiedToken token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String digest, VerifiedToken token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
     /**
      * Generates a JWT token for the given loginId (usually email or username).
+     * Also embeds the user id, username, auth provider and token version so the
+     * principal can be rebuilt from the token without a database lookup, and a
+     * unique token id (jti) so the token can be revoked on logout.
      */
     public String generateToken(Users user) {
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(user.getEmail())
                 .claim("role", user.getRole())
+                .claim("uid", user.getId())
+                .claim("username", user.getUsername())
+                .claim("provider", user.getAuthProvider() != null ? user.getAuthProvider().name() : AuthProvider.LOCAL.name())
+                .claim("ver", tokenVersionService.versionForIssue(user.getId()))
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getKey(), Jwts.SIG.HS256) // Sign with HMAC-SHA256
+                .signWith(key, Jwts.SIG.HS256) // Sign with HMAC-SHA256
                 .compact();
     }
 
+    /**
+     * Parses and verifies the token once and returns an immutable view of it.
+     * Repeat calls with the same token are served from the verified-token cache
+     * and skip signature verification.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, tampered or expired
+     */
+    public VerifiedToken verify(String token) {
+        String digest = digest(token);
+
+        VerifiedToken cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null && !cached.isExpired()) {
+            return cached;
+        }
+
+        VerifiedToken verified = VerifiedToken.from(parser.parseSignedClaims(token).getPayload());
+        verifiedTokens.put(digest, verified);
+        return verified;
+    }
+
     /**
      * Extracts the login identifier (subject) from a token.
      */
     public String extractLoginId(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return verify(token).subject();
     }
 
     /**
-     * Extracts the expiration time from a token.
+     * Extracts the expiration time from a token, {@code null} if it never expires.
      */
     public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        Instant expiresAt = verify(token).expiresAt();
+        return expiresAt == null ? null : Date.from(expiresAt);
     }
 
     /**
@@ -62,46 +155,94 @@ public class JwtService {
      * - Ensures token is not expired
      */
     public boolean validateToken(String token, UserDetails userDetails) {
-        String loginId = extractLoginId(token);
-        return loginId.equals(userDetails.getUsername()) && !isTokenExpired(token);
+        return validateToken(verify(token), userDetails);
     }
 
     /**
-     * Checks if the JWT token has expired.
+     * Same as {@link #validateToken(String, UserDetails)} for an already verified token.
      */
-    public boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public boolean validateToken(VerifiedToken token, UserDetails userDetails) {
+        return token.subject().equals(userDetails.getUsername()) && !token.isExpired();
+    }
+
+    /**
+     * Whether principals should be rebuilt from token claims instead of loaded from the database.
+     */
+    public boolean isStatelessPrincipal() {
+        return statelessPrincipal;
+    }
+
+    /**
+     * Checks whether the token carries the claims needed to rebuild the principal.
+     */
+    public boolean hasPrincipalClaims(VerifiedToken token) {
+        return token.claim("uid", String.class) != null
+            && token.claim("provider", String.class) != null
+            && token.claim("ver", Number.class) != null;
     }
 
     /**
-     * Generic method to extract any claim from the token using a resolver.
+     * Checks that the token was issued with the user's current token version,
+     * i.e. it was not revoked by a role change, deletion or password reset.
      */
-    public <T> T extractClaim(String token, Function<Claims, T> resolver) {
-        Claims claims = parseClaims(token);
-        return resolver.apply(claims);
+    public boolean isTokenVersionCurrent(VerifiedToken token) {
+        return tokenVersionService.isCurrent(
+            token.claim("uid", String.class),
+            token.claim("ver", Number.class).longValue()
+        );
     }
 
     /**
-     * Parses and validates the JWT signature and returns the claims.
+     * Checks whether the token was revoked through logout.
      */
-    private Claims parseClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getKey()) // Verify the signature
-                .build()
-                .parseSignedClaims(token)
-                .getPayload(); // Extract the body (claims)
+    public boolean isRevoked(VerifiedToken token) {
+        return revocationService.isRevoked(token.tokenId());
     }
 
     /**
-     * Converts the Base64-encoded secret key into a usable HMAC key.
+     * Revokes a single token until it expires.
      */
-    private SecretKey getKey() {
-        byte[] decodedKey = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(decodedKey);
+    public void revoke(VerifiedToken token) {
+        if (token.expiresAt() != null) {
+            revocationService.revoke(token.tokenId(), token.expiresAt());
+        }
     }
 
-    /** 
-     * Generates a short lived token for the opt verification  
+    /**
+     * Rebuilds the authenticated principal from the token claims, without a database hit.
+     */
+    public UserPrincipal toPrincipal(VerifiedToken token) {
+        Users user = new Users();
+        user.setId(token.claim("uid", String.class));
+        user.setEmail(token.subject());
+        user.setUsername(token.claim("username", String.class));
+        user.setRole(token.role());
+        user.setAuthProvider(AuthProvider.valueOf(token.claim("provider", String.class)));
+        user.setVerified(true);
+        return new UserPrincipal(user);
+    }
+
+    /**
+     * Checks if the JWT token has expired.
+     */
+    public boolean isTokenExpired(String token) {
+        return verify(token).isExpired();
+    }
+
+    /**
+     * Hashes the raw token so the cache never holds bearer tokens in memory.
+     */
+    private String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    /**
+     * Generates a short lived token for the opt verification
      */
     public String generateOtpToken(String loginId) {
         return Jwts.builder()
@@ -110,7 +251,7 @@ public class JwtService {
                 .claim("token_type", "otp")
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + 1000*60*5))
-                .signWith(getKey(), Jwts.SIG.HS256) // Sign with HMAC-SHA256
+                .signWith(key, Jwts.SIG.HS256) // Sign with HMAC-SHA256
                 .compact();
     }
 }
@@ -0,0 +1,63 @@
+package com.dhanesh.auth.portal.security.jwt;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * Immutable view of a JWT whose signature has already been verified.
+ * Built once per token so callers never have to parse the same token twice.
+ */
+public record VerifiedToken(
+    String tokenId,
+    String subject,
+    String role,
+    Instant issuedAt,
+    Instant expiresAt,
+    Map<String, Object> claims
+) {
+
+    // Registered claims are exposed as fields, everything else stays in the claims map
+    private static final Set<String> REGISTERED_CLAIMS = Set.of(
+        Claims.ID, Claims.SUBJECT, Claims.ISSUED_AT, Claims.EXPIRATION, "role"
+    );
+
+    /**
+     * Builds a verified token from the claims returned by the JWT parser.
+     */
+    static VerifiedToken from(Claims claims) {
+        Map<String, Object> custom = new HashMap<>();
+        claims.forEach((name, value) -> {
+            if (!REGISTERED_CLAIMS.contains(name) && value != null) {
+                custom.put(name, value);
+            }
+        });
+
+        return new VerifiedToken(
+            claims.getId(),
+            claims.getSubject(),
+            claims.get("role", String.class),
+            claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+            claims.getExpiration() != null ? claims.getExpiration().toInstant() : null,
+            Map.copyOf(custom)
+        );
+    }
+
+    /**
+     * Returns a custom claim cast to the requested type, or null if absent.
+     */
+    public <T> T claim(String name, Class<T> type) {
+        Object value = claims.get(name);
+        return type.isInstance(value) ? type.cast(value) : null;
+    }
+
+    /**
+     * Checks if the token has passed its expiration time.
+     */
+    public boolean isExpired() {
+        return expiresAt != null && expiresAt.isBefore(Instant.now());
+    }
+}
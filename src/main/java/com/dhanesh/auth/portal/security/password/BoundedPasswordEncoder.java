@@ -0,0 +1,127 @@
+package com.dhanesh.auth.portal.security.password;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.dhanesh.auth.portal.exception.PasswordHashingUnavailableException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * PasswordEncoder that runs every hash and match on a dedicated, bounded executor.
+ * <p>
+ * BCrypt is deliberately CPU heavy, so a burst of logins could otherwise occupy
+ * every request thread. Concurrency is capped at the pool size; once the queue is
+ * full callers fail fast with {@link PasswordHashingUnavailableException} (503)
+ * instead of piling up behind each other.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejectedCounter;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int poolSize, int queueCapacity, MeterRegistry registry) {
+        this.delegate = delegate;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+            poolSize, poolSize,
+            0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "password-hash-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+
+        this.encodeTimer = Timer.builder("auth.password.hash")
+            .description("Time spent hashing or matching passwords")
+            .tag("operation", "encode")
+            .register(registry);
+        this.matchesTimer = Timer.builder("auth.password.hash")
+            .description("Time spent hashing or matching passwords")
+            .tag("operation", "matches")
+            .register(registry);
+        this.rejectedCounter = Counter.builder("auth.password.rejected")
+            .description("Password hash requests rejected because the queue was full")
+            .register(registry);
+        Gauge.builder("auth.password.queue.depth", executor, e -> e.getQueue().size())
+            .description("Password hash requests waiting for a worker")
+            .register(registry);
+        Gauge.builder("auth.password.active", executor, ThreadPoolExecutor::getActiveCount)
+            .description("Password hash requests currently running")
+            .register(registry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(encodeTimer, () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(matchesTimer, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Only inspects the stored hash prefix, cheap enough to run on the caller thread.
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * The unbounded encoder, for batch jobs that manage their own concurrency.
+     */
+    public PasswordEncoder getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Stops the hashing workers; invoked by Spring on context shutdown.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> T submit(Timer timer, Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> timer.recordCallable(task));
+        } catch (RejectedExecutionException ex) {
+            rejectedCounter.increment();
+            throw new PasswordHashingUnavailableException("Server is busy, please try again shortly.");
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new PasswordHashingUnavailableException("Password hashing was interrupted.");
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+}
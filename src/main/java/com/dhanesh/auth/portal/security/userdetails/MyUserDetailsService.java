@@ -1,6 +1,11 @@
 package com.dhanesh.auth.portal.security.userdetails;
 
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -9,31 +14,72 @@ import com.dhanesh.auth.portal.entity.Users;
 import com.dhanesh.auth.portal.exception.AuthenticationFailedException;
 import com.dhanesh.auth.portal.model.AuthProvider;
 import com.dhanesh.auth.portal.repository.UserRepository;
+import com.dhanesh.auth.portal.service.Redis.RedisUserCacheService;
 
 import lombok.RequiredArgsConstructor;
 
 @Service 
 @RequiredArgsConstructor
-public class MyUserDetailsService implements UserDetailsService{
+public class MyUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final MongoTemplate mongoTemplate;
+    private final RedisUserCacheService userCacheService;
 
     /**
-     * Loads user by either email or username. Used by Spring Security.
+     * Loads user by either email or username, with credentials. Used by Spring Security
+     * to check a password, so it always reads MongoDB: the cache holds no password hashes.
      * loginId : username or email 
      */
 
     @Override
     public UserDetails loadUserByUsername(String loginId) throws UsernameNotFoundException {
          
-        Users user = userRepository
-                        .findByUsernameOrEmail(loginId, loginId)
+        Users user = userRepository.findByUsernameOrEmail(loginId, loginId)
                         .orElseThrow(() -> 
                             new UsernameNotFoundException("User not found: " + loginId)
                         );
+        return principal(user);
+    }
+
+    /**
+     * Loads user by either email or username, without credentials, for requests whose
+     * token is already verified. Served from the two-tier user cache, MongoDB is only
+     * hit on a miss.
+     */
+    public UserDetails loadCachedUser(String loginId) throws UsernameNotFoundException {
+        Users user = userCacheService
+                        .get(loginId, id -> userRepository.findByUsernameOrEmail(id, id))
+                        .orElseThrow(() -> 
+                            new UsernameNotFoundException("User not found: " + loginId)
+                        );
+        return principal(user);
+    }
+
+    private static UserPrincipal principal(Users user) {
         if (user.getAuthProvider() != AuthProvider.LOCAL) {
             throw new AuthenticationFailedException("Please login using " + user.getAuthProvider().name().toLowerCase());
         }
         return new UserPrincipal(user);
     }
-}
\ No newline at end of file
+
+    /**
+     * Persists a re-encoded password after a successful login when the stored hash
+     * is outdated (legacy format or lower BCrypt cost). Called by Spring Security.
+     * Only the password field is updated.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        Users user = ((UserPrincipal) userDetails).getUser();
+
+        mongoTemplate.updateFirst(
+            Query.query(Criteria.where("id").is(user.getId())),
+            Update.update("password", newPassword),
+            Users.class
+        );
+        userCacheService.evict(user);
+
+        user.setPassword(newPassword);
+        return new UserPrincipal(user);
+    }
+}
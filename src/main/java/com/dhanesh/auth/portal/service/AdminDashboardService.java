@@ -8,6 +8,7 @@ import com.dhanesh.auth.portal.repository.CourseFeedbackRepository;
 import com.dhanesh.auth.portal.repository.CourseRepository;
 import com.dhanesh.auth.portal.repository.StudentProfileRepository;
 import com.dhanesh.auth.portal.repository.UserRepository;
+import com.dhanesh.auth.portal.util.CourseCatalogSnapshot;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
@@ -41,6 +42,7 @@ public class AdminDashboardService {
     private final CourseFeedbackRepository feedbackRepository;
     private final UserRepository userRepository;
     private final StudentProfileRepository studentProfileRepository;
+    private final CourseCatalogService courseCatalogService;
 
     public AdminDashboardResponse getDashboard(String usernameOrEmail) {
         Users admin = userRepository.findByUsernameOrEmail(usernameOrEmail, usernameOrEmail)
@@ -65,11 +67,13 @@ public class AdminDashboardService {
             .getContent();
 
         // Platform Distribution
-        Map<String, Long> platformDist = courseRepository
-            .findAll()
-            .stream()
-            .filter(c -> c.getPlatform() != null)
-            .collect(Collectors.groupingBy(Course::getPlatform, Collectors.counting()));
+        Map<String, Long> platformDist = courseCatalogService.current()
+            .map(CourseCatalogSnapshot::platformCounts)
+            .orElseGet(() -> courseRepository
+                .findAll()
+                .stream()
+                .filter(c -> c.getPlatform() != null)
+                .collect(Collectors.groupingBy(Course::getPlatform, Collectors.counting())));
 
         // Interest Area Popularity
         Map<String, Long> interestStats = studentProfileRepository
@@ -13,6 +13,8 @@ import com.dhanesh.auth.portal.repository.ProfilePhotoRepository;
 import com.dhanesh.auth.portal.repository.SavedCourseRepository;
 import com.dhanesh.auth.portal.repository.StudentProfileRepository;
 import com.dhanesh.auth.portal.repository.UserRepository;
+import com.dhanesh.auth.portal.service.Redis.RedisTokenVersionService;
+import com.dhanesh.auth.portal.service.Redis.RedisUserCacheService;
 
 import lombok.RequiredArgsConstructor;
 
@@ -27,6 +29,9 @@ public class AdminUserService {
     private final SavedCourseRepository savedCourseRepository;
     private final StudentProfileRepository studentProfileRepository;
     private final CourseFeedbackRepository feedbackRepository;
+    private final RedisTokenVersionService tokenVersionService;
+    private final RedisUserCacheService userCacheService;
+    private final UserExistenceFilterService userExistenceFilter;
 
     
     /**
@@ -39,6 +44,8 @@ public class AdminUserService {
         user.ifPresent(u -> {
             u.setRole("ADMIN"); 
             userRepository.save(u);
+            tokenVersionService.bump(u.getId());
+            userCacheService.evict(u);
         });
         return user.isPresent();
     }
@@ -74,6 +81,9 @@ public class AdminUserService {
             }
 
             courseShareRepository.deleteByUserId(id);
+            tokenVersionService.bump(id);
+            userCacheService.evict(user.get());
+            userExistenceFilter.recordDeletion();
         }
         return false;
     }
@@ -5,6 +5,8 @@ import java.util.Map;
 
 import java.util.Optional;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -15,12 +17,18 @@ import com.dhanesh.auth.portal.dto.otp.OtpRequest;
 import com.dhanesh.auth.portal.entity.Users;
 import com.dhanesh.auth.portal.exception.AuthenticationFailedException;
 import com.dhanesh.auth.portal.exception.EmailAlreadyInUseException;
+import com.dhanesh.auth.portal.exception.PasswordHashingUnavailableException;
 import com.dhanesh.auth.portal.exception.UsernameAlreadyTakenException;
 import com.dhanesh.auth.portal.model.AuthProvider;
 import com.dhanesh.auth.portal.model.OtpPurpose;
 import com.dhanesh.auth.portal.repository.UserRepository;
 import com.dhanesh.auth.portal.security.jwt.JwtService;
+import com.dhanesh.auth.portal.security.jwt.VerifiedToken;
+import com.dhanesh.auth.portal.security.userdetails.UserPrincipal;
 import com.dhanesh.auth.portal.service.Redis.RedisAuthService;
+import com.dhanesh.auth.portal.service.Redis.RedisLoginThrottleService;
+import com.dhanesh.auth.portal.service.Redis.RedisTokenVersionService;
+import com.dhanesh.auth.portal.service.Redis.RedisUserCacheService;
 
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
@@ -41,6 +49,10 @@ public class AuthService {
     private final AuthenticationManager authenticationManager;
     private final OtpService otpService;
     private final RedisAuthService redisAuthService;
+    private final RedisTokenVersionService tokenVersionService;
+    private final RedisUserCacheService userCacheService;
+    private final RedisLoginThrottleService loginThrottle;
+    private final UserExistenceFilterService userExistenceFilter;
 
     /**
      * Initiates user registration by validating uniqueness and storing data in Redis.
@@ -50,29 +62,36 @@ public class AuthService {
         String email = credentials.email();
 
         // Check if email/username already exists (DB or Redis cache)
-        if (userRepo.findByEmail(email).isPresent()) {
+        // The in-memory filter answers definite negatives without touching MongoDB
+        if (userExistenceFilter.mightContainEmail(email) && userRepo.findByEmail(email).isPresent()) {
             throw new EmailAlreadyInUseException("Email already taken.");
         }
 
         Optional<SignupTempData> existingSignup = redisAuthService.getSignupData(email);
         if (existingSignup.isPresent()) {            
-            return new SignupResponse(
-                existingSignup.get().username(),
-                email,
-                "You already started registration. Please verify OTP sent to your email.",
-                AuthProvider.LOCAL
-                );
+            return alreadyStartedResponse(existingSignup.get().username(), email);
         }
 
 
-        if (userRepo.findByUsername(username).isPresent() || redisAuthService.existsByUsername(username)) {
+        if (userExistenceFilter.mightContainUsername(username) && userRepo.findByUsername(username).isPresent()) {
             throw new UsernameAlreadyTakenException("Username already taken.");
         }
 
-        // Store temp user data in Redis
+        // Store temp user data in Redis, pending reservations are checked atomically
         String encodedPassword = passwordEncoder.encode(credentials.password());
         SignupTempData signupData = new SignupTempData(username, email, encodedPassword);
-        redisAuthService.storeSignupData(email, signupData);
+
+        switch (redisAuthService.storeSignupData(email, signupData)) {
+            case USERNAME_TAKEN -> throw new UsernameAlreadyTakenException("Username already taken.");
+            case EMAIL_PENDING -> {
+                // A concurrent signup for the same email won the race
+                String pendingUsername = redisAuthService.getSignupData(email)
+                        .map(SignupTempData::username)
+                        .orElse(username);
+                return alreadyStartedResponse(pendingUsername, email);
+            }
+            case RESERVED -> { }
+        }
 
         // Send OTP for verification
         otpService.sendOtp(new OtpRequest(email, OtpPurpose.VERIFICATION));
@@ -85,20 +104,50 @@ public class AuthService {
         );
     }
 
+    private SignupResponse alreadyStartedResponse(String username, String email) {
+        return new SignupResponse(
+            username,
+            email,
+            "You already started registration. Please verify OTP sent to your email.",
+            AuthProvider.LOCAL
+        );
+    }
+
     /**
      * Authenticates a user using username/email and password.
+     * The user is loaded once by the authentication provider and its principal
+     * is reused for token generation, so sign-in costs a single lookup.
+     * Locked accounts and IPs are rejected before the lookup and the password check.
      */
-    public SigninResponse signin(SigninRequest request) {
-        Users user = userRepo.findByUsernameOrEmail(request.loginId(), request.loginId())
-                .orElseThrow(() -> new AuthenticationFailedException("Invalid credentials"));
-
-        Authentication auth = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(user.getEmail(), request.password()));
+    public SigninResponse signin(SigninRequest request, String clientIp) {
+        loginThrottle.checkAllowed(request.loginId(), clientIp);
+
+        Authentication auth;
+        try {
+            auth = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(request.loginId(), request.password()));
+        } catch (BadCredentialsException ex) {
+            loginThrottle.recordFailure(request.loginId(), clientIp);
+            throw new AuthenticationFailedException("Invalid credentials");
+        } catch (InternalAuthenticationServiceException ex) {
+            // e.g. account registered through a social provider
+            if (ex.getCause() instanceof AuthenticationFailedException failed) {
+                throw failed;
+            }
+            // The password hashing pool is full: a 503, not a server error
+            if (ex.getCause() instanceof PasswordHashingUnavailableException unavailable) {
+                throw unavailable;
+            }
+            throw ex;
+        }
 
         if (!auth.isAuthenticated()) {
             throw new AuthenticationFailedException("Authentication failed");
         }
 
+        loginThrottle.recordSuccess(request.loginId());
+
+        Users user = ((UserPrincipal) auth.getPrincipal()).getUser();
         String token = jwtService.generateToken(user);
 
         return new SigninResponse(
@@ -128,6 +177,8 @@ public class AuthService {
         user.setCreatedAt(Instant.now());
 
         userRepo.save(user);
+        userCacheService.evict(user);
+        userExistenceFilter.add(user);
         redisAuthService.deleteSignupData(email, tempData.username());
     }
 
@@ -135,7 +186,7 @@ public class AuthService {
      * Checks whether a registration session exists in Redis.
      */
     public boolean isRegisterSessionValid(String email) {
-        return redisAuthService.hasKey("signup:" + email);
+        return redisAuthService.existsByEmail(email);
     }
 
     /**
@@ -146,18 +197,18 @@ public class AuthService {
             return Map.of("valid", false, "message", "Missing or invalid Authorization header.");
         }
 
-        String token = authHeader.substring(7);
+        VerifiedToken token = jwtService.verify(authHeader.substring(7));
 
-        if(!jwtService.extractLoginId(token).equals(request.email())){
+        if(!token.subject().equals(request.email())){
             return Map.of("valid", false, "message", "Email Mismatch");
         }
 
-        if (jwtService.isTokenExpired(token)) {
+        if (token.isExpired()) {
             return Map.of("valid", false, "message", "Token expired.");
         }
 
-        Boolean isVerified = jwtService.extractClaim(token, claims -> claims.get("otp_verified", Boolean.class));
-        String type = jwtService.extractClaim(token, claims -> claims.get("token_type", String.class));
+        Boolean isVerified = token.claim("otp_verified", Boolean.class);
+        String type = token.claim("token_type", String.class);
 
 
         if (!Boolean.TRUE.equals(isVerified) || !"otp".equals(type)) {
@@ -175,18 +226,39 @@ public class AuthService {
                 .orElseThrow(() -> new AuthenticationFailedException("User not found"));
         user.setPassword(passwordEncoder.encode(request.newPassword()));
         userRepo.save(user);
+
+        // Revoke tokens issued with the old password
+        tokenVersionService.bump(user.getId());
+        userCacheService.evict(user);
+    }
+
+    /**
+     * Revokes the token the request was made with.
+     */
+    public void logout(String authHeader) {
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            jwtService.revoke(jwtService.verify(authHeader.substring(7)));
+        }
+    }
+
+    /**
+     * Revokes every token issued to the user so far, on all devices.
+     */
+    public void logoutAll(Users user, String authHeader) {
+        tokenVersionService.bump(user.getId());
+        logout(authHeader);
     }
 
     public boolean emailExists(String email){
-        return userRepo.existsByEmail(email);
+        return userExistenceFilter.mightContainEmail(email) && userRepo.existsByEmail(email);
     }
 
+    /**
+     * The address login throttling and OTP rate limits key on. X-Forwarded-For is
+     * only honoured when set by a trusted proxy, which the servlet container resolves
+     * into the remote address (see {@code server.forward-headers-strategy}).
+     */
     public String getClientIp(HttpServletRequest servletRequest) {
-        String header = servletRequest.getHeader("X-Forwarded-For");
-
-        if(header != null)
-            return header.split(", ")[0];
-        
         return servletRequest.getRemoteAddr();
     }
 }
@@ -0,0 +1,110 @@
+package com.dhanesh.auth.portal.service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import com.dhanesh.auth.portal.entity.Course;
+import com.dhanesh.auth.portal.model.CourseChangedEvent;
+import com.dhanesh.auth.portal.util.CourseCatalogSnapshot;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Holds the current {@link CourseCatalogSnapshot} for filtering, ranking and stats.
+ * <p>
+ * Built at startup, then rebuilt as a whole a short delay after courses change
+ * (locally or on another node, see {@link CourseChangeRelay}). Changes arriving within
+ * the delay share one rebuild. Readers keep the snapshot they started with, the new
+ * one replaces it atomically.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CourseCatalogService {
+
+    private static final String[] SNAPSHOT_FIELDS = {
+        "tags", "platform", "difficultyLevel", "duration", "rating", "saveCount", "shareCount", "lastUpdated"
+    };
+
+    private final MongoTemplate mongoTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.course.catalog.refresh-delay}")
+    private long refreshDelaySeconds;
+
+    private volatile CourseCatalogSnapshot snapshot;
+
+    private final AtomicBoolean refreshScheduled = new AtomicBoolean();
+    private ScheduledExecutorService refresher;
+
+    @PostConstruct
+    void init() {
+        this.refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "course-catalog-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("auth.course.catalog.size", this, service -> service.current().map(CourseCatalogSnapshot::size).orElse(0))
+                .description("Courses in the in-memory catalog snapshot")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        refresher.execute(this::refresh);
+    }
+
+    @EventListener
+    public void onCourseChanged(CourseChangedEvent event) {
+        if (refreshScheduled.compareAndSet(false, true)) {
+            refresher.schedule(this::refresh, refreshDelaySeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * The latest snapshot, empty until the first one is built.
+     */
+    public Optional<CourseCatalogSnapshot> current() {
+        return Optional.ofNullable(snapshot);
+    }
+
+    /**
+     * Rebuilds the snapshot from the courses collection.
+     */
+    public void refresh() {
+        // Changes from now on need another rebuild
+        refreshScheduled.set(false);
+        try {
+            Query query = new Query();
+            query.fields().include(SNAPSHOT_FIELDS);
+
+            List<Course> courses = mongoTemplate.find(query, Course.class);
+            this.snapshot = CourseCatalogSnapshot.of(courses);
+            log.info("Course catalog snapshot built with {} courses", courses.size());
+        } catch (RuntimeException ex) {
+            log.warn("Failed to build course catalog snapshot", ex);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.dhanesh.auth.portal.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+
+import com.dhanesh.auth.portal.model.CourseChangedEvent;
+import com.dhanesh.auth.portal.repository.CourseRepository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Relays {@link CourseChangedEvent}s between nodes over Redis pub/sub.
+ * <p>
+ * Local changes are announced by course id only; every other node reloads that
+ * course and republishes the event locally (marked remote), so the in-memory course
+ * indexes on all nodes stay current without periodic reloads.
+ * <p>
+ * Announcing happens off the request thread and failures are only logged: the
+ * change is already in MongoDB, and an unavailable Redis must not fail course
+ * writes. Receivers reload the course by id, so the order announcements arrive in
+ * does not matter.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CourseChangeRelay implements MessageListener {
+
+    private static final String CHANGED_CHANNEL = "authportal:course-changed";
+
+    /** Tells this node's own pub/sub messages apart from the other nodes' */
+    private static final String NODE_ID = UUID.randomUUID().toString();
+
+    private final CourseRepository courseRepository;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostConstruct
+    void init() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANGED_CHANNEL));
+    }
+
+    @EventListener
+    public void onCourseChanged(CourseChangedEvent event) {
+        if (event.remote()) {
+            return;
+        }
+        CompletableFuture
+            .runAsync(() -> stringRedisTemplate.convertAndSend(CHANGED_CHANNEL, NODE_ID + "\n" + event.courseId()))
+            .exceptionally(ex -> {
+                log.warn("Could not announce change of course {} to other nodes", event.courseId(), ex);
+                return null;
+            });
+    }
+
+    @Override
+    public void onMessage(@NonNull Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\n", 2);
+        if (parts.length < 2 || NODE_ID.equals(parts[0])) {
+            return;
+        }
+        String courseId = parts[1];
+        eventPublisher.publishEvent(new CourseChangedEvent(courseId, courseRepository.findById(courseId).orElse(null), true));
+    }
+}
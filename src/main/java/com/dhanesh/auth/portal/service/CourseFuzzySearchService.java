@@ -0,0 +1,216 @@
+package com.dhanesh.auth.portal.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import com.dhanesh.auth.portal.entity.Course;
+import com.dhanesh.auth.portal.model.CourseChangedEvent;
+import com.dhanesh.auth.portal.repository.CourseRepository;
+import com.dhanesh.auth.portal.util.RebuildReplay;
+import com.dhanesh.auth.portal.util.TrigramIndex;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Typo-tolerant course search.
+ * <p>
+ * Keeps a {@link TrigramIndex} over the words of every course title, tutor and tag.
+ * The closest vocabulary words within the allowed edit distance of each query word
+ * that is not in that vocabulary are appended to the query ("pyhton" also searches
+ * "python"), and the expanded query runs through the regular ranked text search.
+ * The query itself is kept as typed, phrases and {@code -excluded} terms included,
+ * so a fuzzy search never finds less than an exact one. Excluded words are not
+ * corrected: widening an exclusion would hide courses. Short words allow fewer
+ * edits, so "go" is never corrected into "js". The index is maintained like the
+ * typeahead index: built at startup, then updated per {@link CourseChangedEvent}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CourseFuzzySearchService {
+
+    private final MongoTemplate mongoTemplate;
+    private final CourseRepository courseRepository;
+    private final CourseSearchService courseSearchService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.course.fuzzy.max-distance}")
+    private int maxDistance;
+
+    @Value("${app.course.fuzzy.corrections-per-word}")
+    private int correctionsPerWord;
+
+    private final TrigramIndex index = new TrigramIndex();
+
+    /** Replays the courses changed while a rebuild was reading the collection */
+    private final RebuildReplay<String> rebuildReplay = new RebuildReplay<>();
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("auth.course.fuzzy.vocabulary", index, TrigramIndex::size)
+                .description("Distinct words in the fuzzy search index")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        CompletableFuture.runAsync(this::rebuild);
+    }
+
+    /**
+     * Searches courses, tolerating misspelled words.
+     *
+     * @param text     the search terms
+     * @param language optional course language, see {@link CourseSearchService#search}
+     * @param page     the page number (0-indexed)
+     * @param size     the number of courses per page
+     * @return the page of matching courses, best matches first
+     */
+    public List<Course> search(String text, String language, int page, int size) {
+        String corrected = correct(text);
+        if (corrected.isBlank()) {
+            return List.of();
+        }
+        return courseSearchService.search(corrected, language, page, size);
+    }
+
+    /**
+     * Appends the closest known words of every unknown, not excluded word to the query,
+     * which is otherwise left as typed. Text search ORs plain terms, so the additions
+     * only widen it.
+     */
+    public String correct(String text) {
+        if (text == null) {
+            return "";
+        }
+        List<String> words = TrigramIndex.tokenize(text);
+        Set<String> corrections = new LinkedHashSet<>();
+        for (String word : includedWords(text)) {
+            if (index.contains(word)) {
+                continue;
+            }
+            for (TrigramIndex.Match match : index.lookup(word, allowedDistance(word), correctionsPerWord)) {
+                if (!words.contains(match.word())) {
+                    corrections.add(match.word());
+                }
+            }
+        }
+        return corrections.isEmpty() ? text : text + " " + String.join(" ", corrections);
+    }
+
+    /**
+     * The words of a text search query that are not excluded, lower-cased. A term is
+     * excluded when a {@code -} starts it, a phrase when a {@code -} precedes its
+     * opening quote, as {@code $text} reads them.
+     */
+    static List<String> includedWords(String text) {
+        List<String> words = new ArrayList<>();
+        boolean quoted = false;
+        boolean excluded = false;
+        int i = 0;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            boolean termStart = i == 0 || Character.isWhitespace(text.charAt(i - 1));
+            if (c == '"') {
+                excluded = !quoted && i > 0 && text.charAt(i - 1) == '-'
+                    && (i == 1 || Character.isWhitespace(text.charAt(i - 2)));
+                quoted = !quoted;
+                i++;
+            } else if (Character.isWhitespace(c) && !quoted) {
+                excluded = false;
+                i++;
+            } else if (c == '-' && !quoted && termStart) {
+                excluded = true;
+                i++;
+            } else if (Character.isLetterOrDigit(c)) {
+                int end = i;
+                while (end < text.length() && Character.isLetterOrDigit(text.charAt(end))) {
+                    end++;
+                }
+                if (!excluded) {
+                    words.add(text.substring(i, end).toLowerCase(Locale.ROOT));
+                }
+                i = end;
+            } else {
+                i++;
+            }
+        }
+        return words;
+    }
+
+    @EventListener
+    public void onCourseChanged(CourseChangedEvent event) {
+        apply(event.courseId(), event.course());
+    }
+
+    /**
+     * Rebuilds the whole index from the courses collection.
+     */
+    public void rebuild() {
+        rebuildReplay.run(this::load, courseId -> apply(courseId, courseRepository.findById(courseId).orElse(null)));
+    }
+
+    private void load() {
+        try {
+            Query query = new Query();
+            query.fields().include("title").include("tutor").include("tags");
+
+            List<TrigramIndex.Source> sources = new ArrayList<>();
+            try (Stream<Course> courses = mongoTemplate.stream(query, Course.class)) {
+                courses.forEach(course -> sources.add(new TrigramIndex.Source(course.getId(), texts(course))));
+            }
+            index.rebuild(sources);
+            log.info("Fuzzy search index built from {} courses, {} words", sources.size(), index.size());
+        } catch (RuntimeException ex) {
+            log.warn("Failed to build fuzzy search index", ex);
+        }
+    }
+
+    private void apply(String courseId, Course course) {
+        rebuildReplay.changed(courseId);
+        if (course == null) {
+            index.remove(courseId);
+        } else {
+            index.put(courseId, texts(course));
+        }
+    }
+
+    // One edit up to 6 letters, the configured maximum beyond. Up to there, two edits
+    // could leave a match without a shared trigram and force a scan of the vocabulary.
+    private int allowedDistance(String word) {
+        if (word.length() <= 2) {
+            return 0;
+        }
+        return word.length() <= 6 ? Math.min(1, maxDistance) : maxDistance;
+    }
+
+    private static List<String> texts(Course course) {
+        List<String> texts = new ArrayList<>();
+        if (course.getTitle() != null) {
+            texts.add(course.getTitle());
+        }
+        if (course.getTutor() != null) {
+            texts.add(course.getTutor());
+        }
+        if (course.getTags() != null) {
+            texts.addAll(course.getTags());
+        }
+        return texts;
+    }
+}
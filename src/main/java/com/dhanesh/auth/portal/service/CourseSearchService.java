@@ -0,0 +1,136 @@
+package com.dhanesh.auth.portal.service;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.TextIndexDefinition;
+import org.springframework.data.mongodb.core.index.TextIndexDefinition.TextIndexDefinitionBuilder;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.dhanesh.auth.portal.entity.Course;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Full-text course search backed by a MongoDB text index.
+ * <p>
+ * The index covers title, tags, tutor and description with descending weights, so a
+ * match in the title outranks the same match in the description. MongoDB tokenizes,
+ * drops stop words and stems each course in its own language (taken from
+ * {@link Course#getSearchLanguage()}), and a search is an index lookup ranked by
+ * text score, so latency does not grow with the size of the catalog.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CourseSearchService {
+
+    private static final String INDEX_NAME = "course_text";
+    private static final String DEFAULT_LANGUAGE = "english";
+    private static final String NO_STEMMING = "none";
+
+    /** Languages MongoDB text search can stem, by ISO 639-1 code */
+    private static final Map<String, String> TEXT_LANGUAGES = Map.ofEntries(
+        Map.entry("da", "danish"),
+        Map.entry("nl", "dutch"),
+        Map.entry("en", "english"),
+        Map.entry("fi", "finnish"),
+        Map.entry("fr", "french"),
+        Map.entry("de", "german"),
+        Map.entry("hu", "hungarian"),
+        Map.entry("it", "italian"),
+        Map.entry("nb", "norwegian"),
+        Map.entry("pt", "portuguese"),
+        Map.entry("ro", "romanian"),
+        Map.entry("ru", "russian"),
+        Map.entry("es", "spanish"),
+        Map.entry("sv", "swedish"),
+        Map.entry("tr", "turkish")
+    );
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Creates the text index if needed and fills in the analyzer language of courses
+     * saved before it existed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        TextIndexDefinition index = new TextIndexDefinitionBuilder()
+            .named(INDEX_NAME)
+            .onField("title", 10F)
+            .onField("tags", 5F)
+            .onField("tutor", 3F)
+            .onField("description", 1F)
+            .withDefaultLanguage(DEFAULT_LANGUAGE)
+            .withLanguageOverride("searchLanguage")
+            .build();
+        try {
+            mongoTemplate.indexOps(Course.class).ensureIndex(index);
+        } catch (RuntimeException ex) {
+            log.warn("Could not create course text index, search will fail until it exists", ex);
+        }
+
+        Query missing = new Query(Criteria.where("searchLanguage").exists(false));
+        for (String language : mongoTemplate.findDistinct(missing, "language", Course.class, String.class)) {
+            mongoTemplate.updateMulti(
+                new Query(Criteria.where("searchLanguage").exists(false).and("language").is(language)),
+                Update.update("searchLanguage", textLanguage(language)),
+                Course.class
+            );
+        }
+        mongoTemplate.updateMulti(missing, Update.update("searchLanguage", DEFAULT_LANGUAGE), Course.class);
+    }
+
+    /**
+     * Searches courses, best matches first.
+     *
+     * @param text     the search terms; quoted phrases and {@code -excluded} terms are supported
+     * @param language optional course language; restricts results to it and analyzes
+     *                 the query with the same language rules
+     * @param page     the page number (0-indexed)
+     * @param size     the number of courses per page
+     * @return the page of matching courses
+     */
+    public List<Course> search(String text, String language, int page, int size) {
+        TextCriteria criteria = language == null || language.isBlank()
+            ? TextCriteria.forDefaultLanguage()
+            : TextCriteria.forLanguage(textLanguage(language));
+        criteria.matching(text);
+
+        Query query = TextQuery.queryText(criteria)
+            .sortByScore()
+            .with(PageRequest.of(page, size));
+        if (language != null && !language.isBlank()) {
+            query.addCriteria(Criteria.where("language").regex("^" + Pattern.quote(language.trim()) + "$", "i"));
+        }
+        return mongoTemplate.find(query, Course.class);
+    }
+
+    /**
+     * Maps a course language ("English", "es", ...) to the analyzer MongoDB should use.
+     * Languages it cannot stem are indexed without stemming or stop words.
+     */
+    public static String textLanguage(String language) {
+        if (language == null || language.isBlank()) {
+            return DEFAULT_LANGUAGE;
+        }
+        String normalized = language.trim().toLowerCase(Locale.ROOT);
+        if (TEXT_LANGUAGES.containsValue(normalized)) {
+            return normalized;
+        }
+        return TEXT_LANGUAGES.getOrDefault(normalized, NO_STEMMING);
+    }
+}
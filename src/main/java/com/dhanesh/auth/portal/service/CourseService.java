@@ -3,28 +3,50 @@ package com.dhanesh.auth.portal.service;
 import com.dhanesh.auth.portal.dto.FilterCourseRequest;
 import com.dhanesh.auth.portal.entity.Course;
 import com.dhanesh.auth.portal.entity.StudentProfile;
+import com.dhanesh.auth.portal.model.CourseChangedEvent;
+import com.dhanesh.auth.portal.model.CourseRankingMode;
 import com.dhanesh.auth.portal.repository.CourseRepository;
 import com.dhanesh.auth.portal.repository.StudentProfileRepository;
+import com.dhanesh.auth.portal.util.CourseCatalogSnapshot;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
-import java.util.AbstractMap;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.function.IntPredicate;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service layer for managing course-related operations such as
  * CRUD, filtering, search, and personalized ranking.
  */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class CourseService {
@@ -32,6 +54,32 @@ public class CourseService {
     private final CourseRepository courseRepository;
     private final MongoTemplate mongoTemplate;
     private final StudentProfileRepository studentProfileRepository;
+    private final CourseSearchService courseSearchService;
+    private final CourseFuzzySearchService courseFuzzySearchService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+    private final CourseCatalogService courseCatalogService;
+
+    @Value("${app.course.ranking.mode}")
+    private CourseRankingMode rankingMode;
+
+    /** Everything {@link #calculateScore} reads */
+    private static final String[] SCORE_FIELDS = {
+        "tags", "difficultyLevel", "platform", "saveCount", "shareCount", "rating", "lastUpdated"
+    };
+
+    // Higher score first, higher rating breaks ties, then the ID for a stable order across pages
+    private static final Comparator<Ranked> BEST_FIRST =
+        Comparator.comparingDouble(Ranked::score).reversed()
+            .thenComparing(Comparator.comparingDouble(Ranked::rating).reversed())
+            .thenComparing(Ranked::courseId);
+
+    /** Scores are compared at this many decimals, so that summation order cannot reorder ties */
+    private static final int SCORE_DECIMALS = 6;
+    private static final double SCORE_SCALE = 1e6;
+
+    /** A scored course, without the document */
+    private record Ranked(String courseId, double score, double rating) {}
 
     /**
      * Adds a single new course to the repository.
@@ -41,7 +89,10 @@ public class CourseService {
      */
     public Course addCourse(Course course) {
         course.setLastUpdated(LocalDateTime.now());
-        return courseRepository.save(course);
+        course.setSearchLanguage(CourseSearchService.textLanguage(course.getLanguage()));
+        Course saved = courseRepository.save(course);
+        eventPublisher.publishEvent(new CourseChangedEvent(saved.getId(), saved));
+        return saved;
     }
 
     /**
@@ -51,8 +102,13 @@ public class CourseService {
      * @return list of saved courses
      */
     public List<Course> addCourses(List<Course> courses) {
-        courses.forEach(course -> course.setLastUpdated(LocalDateTime.now()));
-        return courseRepository.saveAll(courses);
+        courses.forEach(course -> {
+            course.setLastUpdated(LocalDateTime.now());
+            course.setSearchLanguage(CourseSearchService.textLanguage(course.getLanguage()));
+        });
+        List<Course> saved = courseRepository.saveAll(courses);
+        saved.forEach(course -> eventPublisher.publishEvent(new CourseChangedEvent(course.getId(), course)));
+        return saved;
     }
 
     /**
@@ -99,10 +155,13 @@ public class CourseService {
             existing.setDuration(updatedData.getDuration());
             existing.setRating(updatedData.getRating());
             existing.setLanguage(updatedData.getLanguage());
+            existing.setSearchLanguage(CourseSearchService.textLanguage(updatedData.getLanguage()));
             existing.setUrl(updatedData.getUrl());
             existing.setImageUrl(updatedData.getImageUrl());
             existing.setLastUpdated(LocalDateTime.now());
-            return courseRepository.save(existing);
+            Course saved = courseRepository.save(existing);
+            eventPublisher.publishEvent(new CourseChangedEvent(saved.getId(), saved));
+            return saved;
         });
     }
 
@@ -116,26 +175,40 @@ public class CourseService {
             throw new IllegalArgumentException("Course with ID " + id + " does not exist.");
         }
         courseRepository.deleteById(id);
+        eventPublisher.publishEvent(new CourseChangedEvent(id, null));
     }
 
     /**
-     * Searches for courses by title or tutor name.
+     * Searches courses by title, tags, tutor and description, most relevant first.
      *
-     * @param query the search term
-     * @return list of matching courses
+     * @param query    the search terms
+     * @param language optional course language to restrict results to
+     * @param fuzzy    whether to tolerate misspelled words
+     * @param page     the page number (0-indexed)
+     * @param size     the number of items per page
+     * @return list of matching courses for that page
      */
-    public List<Course> searchCourses(String query) {
-        return courseRepository.findByTitleContainingIgnoreCaseOrTutorContainingIgnoreCase(query, query);
+    public List<Course> searchCourses(String query, String language, boolean fuzzy, int page, int size) {
+        return fuzzy
+            ? courseFuzzySearchService.search(query, language, page, size)
+            : courseSearchService.search(query, language, page, size);
     }
 
     /**
      * Filters courses based on criteria and ranks them using personalization.
+     * <p>
+     * Depending on {@code app.course.ranking.mode}, the ranking runs in the application
+     * ({@link #rankPage}), in MongoDB ({@link #aggregatePage}) or over the in-memory
+     * catalog ({@link #snapshotPage}). All of them order courses exactly alike.
      *
-     * @param request the filter request object
+     * @param request the filter request object, including the page to return
      * @param userId  the student profile ID for personalization
-     * @return list of personalized, filtered courses
+     * @return the page of personalized, filtered courses, best first
      */
     public List<Course> filterCourses(FilterCourseRequest request, String userId) {
+        StudentProfile profile = studentProfileRepository.findById(userId)
+            .orElseThrow(() -> new IllegalArgumentException("Profile not found"));
+
         Criteria criteria = new Criteria();
 
         if (request.tags() != null && !request.tags().isEmpty()) {
@@ -154,37 +227,155 @@ public class CourseService {
             criteria.and("duration").is(request.duration());
         }
 
+        int page = request.page();
+        int size = request.size();
+        return switch (rankingMode) {
+            case JVM -> rankPage(criteria, profile, page, size);
+            case AGGREGATION -> aggregatePage(criteria, profile, page, size);
+            // Until the first snapshot is built, rank like the default mode
+            case SNAPSHOT -> courseCatalogService.current()
+                .map(catalog -> snapshotPage(catalog, request, profile, page, size))
+                .orElseGet(() -> rankPage(criteria, profile, page, size));
+            case VERIFY -> {
+                List<Course> ranked = rankPage(criteria, profile, page, size);
+                verify(ranked, aggregatePage(criteria, profile, page, size), userId);
+                yield ranked;
+            }
+        };
+    }
+
+    /**
+     * Ranks in the application. Only the fields the score needs are read for the
+     * matching courses, and only the best {@code (page + 1) * size} of them are kept
+     * while streaming. Full documents are loaded for the requested page alone.
+     */
+    private List<Course> rankPage(Criteria criteria, StudentProfile profile, int page, int size) {
         Query query = new Query(criteria);
-        List<Course> filteredCourses = mongoTemplate.find(query, Course.class);
+        query.fields().include(SCORE_FIELDS);
 
-        return rankByScore(filteredCourses, userId);
+        TopRanked top = new TopRanked(page, size);
+        try (Stream<Course> courses = mongoTemplate.stream(query, Course.class)) {
+            courses.forEach(course ->
+                top.offer(course.getId(), roundScore(calculateScore(course, profile)), course.getRating()));
+        }
+        return hydrate(top.pageIds());
     }
 
     /**
-     * Ranks filtered courses based on personalization logic for a user.
-     *
-     * @param filteredCourses the filtered list of courses
-     * @param userId          the user's profile ID
-     * @return sorted course list by descending score
+     * Ranks from the in-memory {@link CourseCatalogSnapshot}, filtering and scoring
+     * its columns with {@link SnapshotScorer}.
+     * Nothing is read from MongoDB but the documents of the page.
      */
-    public List<Course> rankByScore(List<Course> filteredCourses, String userId) {
-        StudentProfile profile = studentProfileRepository.findById(userId)
-            .orElseThrow(() -> new IllegalArgumentException("Profile not found"));
+    private List<Course> snapshotPage(CourseCatalogSnapshot catalog, FilterCourseRequest request,
+                                      StudentProfile profile, int page, int size) {
+        IntPredicate matches = catalog.filter(request.tags(), request.platforms(),
+            request.difficulty() == null ? null : request.difficulty().name(), request.duration());
+        SnapshotScorer scorer = new SnapshotScorer(catalog, profile);
+
+        TopRanked top = new TopRanked(page, size);
+        for (int row = 0; row < catalog.size(); row++) {
+            if (matches.test(row)) {
+                top.offer(catalog.id(row), roundScore(scorer.score(row)), catalog.rating(row));
+            }
+        }
+        return hydrate(top.pageIds());
+    }
+
+    // Loads full documents, keeping the order of the IDs
+    private List<Course> hydrate(List<String> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<String, Course> byId = mongoTemplate.find(new Query(Criteria.where("_id").in(ids)), Course.class)
+            .stream()
+            .collect(Collectors.toMap(Course::getId, Function.identity()));
+        return ids.stream()
+            .map(byId::get)
+            .filter(Objects::nonNull)
+            .toList();
+    }
+
+    /**
+     * Ranks in MongoDB: {@code $match}, {@code $addFields} with the score of
+     * {@link #scoreExpression}, {@code $sort}, {@code $skip} and {@code $limit}, so only
+     * the requested page leaves the database whatever the number of matches.
+     */
+    private List<Course> aggregatePage(Criteria criteria, StudentProfile profile, int page, int size) {
+        AggregationOperation addScore = context -> new Document("$addFields",
+            new Document("score", new Document("$round", List.of(scoreExpression(profile), SCORE_DECIMALS))));
+        AggregationOperation sortByScore = context -> new Document("$sort",
+            new Document("score", -1).append("rating", -1).append("_id", 1));
+
+        AggregationOperation dropScore = context -> new Document("$unset", "score");
+
+        // Typed, so the criteria map like the find queries do (enums, _id)
+        TypedAggregation<Course> aggregation = Aggregation.newAggregation(Course.class,
+            Aggregation.match(criteria),
+            addScore,
+            sortByScore,
+            Aggregation.skip((long) page * size),
+            Aggregation.limit(size),
+            dropScore);
+
+        return mongoTemplate.aggregate(aggregation, Course.class).getMappedResults();
+    }
+
+    /**
+     * The score of {@link #calculateScore} as an aggregation expression, term by term.
+     * Keep the two in step.
+     */
+    private Document scoreExpression(StudentProfile profile) {
+        List<String> interests = profile.getPrimaryInterests() == null ? List.of() : profile.getPrimaryInterests();
+        Date recentSince = Date.from(LocalDateTime.now().minusDays(30).atZone(ZoneId.systemDefault()).toInstant());
+
+        List<Object> terms = new ArrayList<>();
+
+        // Matching tags, counted like the stream filter (duplicates included)
+        Document matchingTags = new Document("$filter", new Document("input", new Document("$ifNull", List.of("$tags", List.of())))
+            .append("as", "tag")
+            .append("cond", new Document("$in", List.of("$$tag", interests))));
+        terms.add(new Document("$multiply", List.of(new Document("$size", matchingTags), 2.0)));
+
+        terms.add(matchIgnoreCase("$difficultyLevel", profile.getPreferredDifficultyLevel(), 3.0));
+        terms.add(matchIgnoreCase("$platform", profile.getPreferredPlatform(), 2.0));
+
+        terms.add(log1p("$saveCount"));
+        terms.add(log1p("$shareCount"));
 
-        return filteredCourses.stream()
-            .map(course -> new AbstractMap.SimpleEntry<>(course, calculateScore(course, profile)))
-            .sorted((a, b) -> {
-                int cmp = Double.compare(b.getValue(), a.getValue());
-                if (cmp == 0) {
-                    // Tie-breaker: higher rating wins
-                    return Double.compare(b.getKey().getRating(), a.getKey().getRating());
-                }
-                return cmp;
-            })
-            .map(Map.Entry::getKey)
-            .collect(Collectors.toList());
+        terms.add(new Document("$multiply", List.of(
+            new Document("$divide", List.of(new Document("$ifNull", List.of("$rating", 0.0)), 5.0)), 4.0)));
+
+        terms.add(new Document("$cond", List.of(new Document("$gt", List.of("$lastUpdated", recentSince)), 1.5, 0.0)));
+
+        return new Document("$add", terms);
     }
 
+    private static Document matchIgnoreCase(String field, String preferred, double weight) {
+        if (preferred == null) {
+            return new Document("$literal", 0.0);
+        }
+        Document equal = new Document("$eq", List.of(new Document("$toLower", field), preferred.toLowerCase(Locale.ROOT)));
+        return new Document("$cond", List.of(equal, weight, 0.0));
+    }
+
+    private static Document log1p(String field) {
+        return new Document("$ln", List.of(new Document("$add", List.of(new Document("$ifNull", List.of(field, 0L)), 1.0))));
+    }
+
+    private static double roundScore(double score) {
+        return Math.rint(score * SCORE_SCALE) / SCORE_SCALE;
+    }
+
+    // Both rankings serve the same page, any difference is a bug in one of them
+    private void verify(List<Course> expected, List<Course> actual, String userId) {
+        List<String> expectedIds = expected.stream().map(Course::getId).toList();
+        List<String> actualIds = actual.stream().map(Course::getId).toList();
+        boolean match = expectedIds.equals(actualIds);
+        meterRegistry.counter("auth.course.ranking.verify", "outcome", match ? "match" : "mismatch").increment();
+        if (!match) {
+            log.warn("Aggregation ranking differs for user {}: expected {}, got {}", userId, expectedIds, actualIds);
+        }
+    }
 
     /**
      * Calculates a recommendation score for a course based on user preferences.
@@ -196,19 +387,21 @@ public class CourseService {
     public double calculateScore(Course course, StudentProfile profile) {
         double score = 0.0;
 
-        // Match tags with user's primary interests
-        long tagMatch = course.getTags().stream()
-            .filter(profile.getPrimaryInterests()::contains)
-            .count();
-        score += tagMatch * 2.0;
+        // Match tags with user's primary interests (courses or profiles without any match none)
+        if (course.getTags() != null && profile.getPrimaryInterests() != null) {
+            long tagMatch = course.getTags().stream()
+                .filter(profile.getPrimaryInterests()::contains)
+                .count();
+            score += tagMatch * 2.0;
+        }
 
         // Match preferred difficulty level
-        if (course.getDifficultyLevel().equalsIgnoreCase(profile.getPreferredDifficultyLevel())) {
+        if (course.getDifficultyLevel() != null && course.getDifficultyLevel().equalsIgnoreCase(profile.getPreferredDifficultyLevel())) {
             score += 3.0;
         }
 
         // Match preferred platform
-        if (course.getPlatform().equalsIgnoreCase(profile.getPreferredPlatform())) {
+        if (course.getPlatform() != null && course.getPlatform().equalsIgnoreCase(profile.getPreferredPlatform())) {
             score += 2.0;
         }
 
@@ -237,6 +430,101 @@ public class CourseService {
         courseRepository.findById(courseId).ifPresent(course -> {
             course.setShareCount(course.getShareCount() + 1);
             courseRepository.save(course);
+            eventPublisher.publishEvent(new CourseChangedEvent(courseId, course));
         });
     }
+
+    /**
+     * {@link #calculateScore(Course, StudentProfile)} over a snapshot row, with the
+     * per-profile parts resolved once per query.
+     */
+    private static final class SnapshotScorer {
+        private final CourseCatalogSnapshot catalog;
+        private final long[] interests;
+        private final boolean[] preferredDifficulty;
+        private final boolean[] preferredPlatform;
+        private final long recentSince;
+
+        private SnapshotScorer(CourseCatalogSnapshot catalog, StudentProfile profile) {
+            this.catalog = catalog;
+            this.interests = catalog.tagSet(profile.getPrimaryInterests());
+            this.preferredDifficulty = catalog.difficultiesEqualIgnoreCase(profile.getPreferredDifficultyLevel());
+            this.preferredPlatform = catalog.platformsEqualIgnoreCase(profile.getPreferredPlatform());
+            this.recentSince = CourseCatalogSnapshot.epochMillis(LocalDateTime.now().minusDays(30));
+        }
+
+        private double score(int row) {
+            double score = catalog.countTags(row, interests) * 2.0;
+
+            int difficulty = catalog.difficulty(row);
+            if (difficulty >= 0 && preferredDifficulty[difficulty]) {
+                score += 3.0;
+            }
+
+            int platform = catalog.platform(row);
+            if (platform >= 0 && preferredPlatform[platform]) {
+                score += 2.0;
+            }
+
+            score += Math.log1p(catalog.saveCount(row));
+            score += Math.log1p(catalog.shareCount(row));
+            score += (catalog.rating(row) / 5.0) * 4.0;
+
+            if (catalog.lastUpdated(row) > recentSince) {
+                score += 1.5;
+            }
+            return score;
+        }
+    }
+
+    /**
+     * Bounded min-heap keeping the best {@code (page + 1) * size} courses offered.
+     * A course is only allocated an entry when it beats the worst one kept.
+     */
+    private static final class TopRanked {
+        private final int page;
+        private final int size;
+        private final int keep;
+        private final PriorityQueue<Ranked> heap;
+
+        private TopRanked(int page, int size) {
+            this.page = page;
+            this.size = size;
+            this.keep = (int) Math.min(Integer.MAX_VALUE, (long) (page + 1) * size);
+            this.heap = new PriorityQueue<>(Math.min(keep, 1024), BEST_FIRST.reversed());
+        }
+
+        private void offer(String courseId, double score, double rating) {
+            if (heap.size() < keep) {
+                heap.add(new Ranked(courseId, score, rating));
+            } else if (beats(courseId, score, rating, heap.peek())) {
+                heap.poll();
+                heap.add(new Ranked(courseId, score, rating));
+            }
+        }
+
+        // BEST_FIRST without building the entry first
+        private static boolean beats(String courseId, double score, double rating, Ranked worst) {
+            if (score != worst.score()) {
+                return score > worst.score();
+            }
+            if (rating != worst.rating()) {
+                return rating > worst.rating();
+            }
+            return courseId.compareTo(worst.courseId()) < 0;
+        }
+
+        /** IDs of the requested page, best first */
+        private List<String> pageIds() {
+            long from = (long) page * size;
+            if (heap.size() <= from) {
+                return List.of();
+            }
+            List<Ranked> best = new ArrayList<>(heap);
+            best.sort(BEST_FIRST);
+            return best.subList((int) from, best.size()).stream()
+                .map(Ranked::courseId)
+                .toList();
+        }
+    }
 }
@@ -2,9 +2,11 @@ package com.dhanesh.auth.portal.service;
 
 import java.time.Instant;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import com.dhanesh.auth.portal.entity.CourseShare;
+import com.dhanesh.auth.portal.model.CourseChangedEvent;
 import com.dhanesh.auth.portal.repository.CourseRepository;
 import com.dhanesh.auth.portal.repository.CourseShareRepository;
 
@@ -16,6 +18,7 @@ public class CourseShareService {
 
     private final CourseShareRepository courseShareRepository;
     private final CourseRepository courseRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public void recordShare(String courseId, String userId, String platform) {
         // Validate course existence
@@ -42,5 +45,7 @@ public class CourseShareService {
                     .build();
             courseShareRepository.save(courseShare);
         }
+
+        eventPublisher.publishEvent(new CourseChangedEvent(courseId, course));
     }
 }
@@ -0,0 +1,140 @@
+package com.dhanesh.auth.portal.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import com.dhanesh.auth.portal.dto.CourseSuggestion;
+import com.dhanesh.auth.portal.entity.Course;
+import com.dhanesh.auth.portal.model.CourseChangedEvent;
+import com.dhanesh.auth.portal.model.SuggestionType;
+import com.dhanesh.auth.portal.repository.CourseRepository;
+import com.dhanesh.auth.portal.util.RebuildReplay;
+import com.dhanesh.auth.portal.util.SuggestionTrie;
+import com.dhanesh.auth.portal.util.SuggestionTrie.Item;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Typeahead suggestions over course titles, tutors and tags, served from memory.
+ * <p>
+ * Built from the courses collection at startup, then kept current one course at a
+ * time from {@link CourseChangedEvent}s, local or relayed from other nodes by
+ * {@link CourseChangeRelay}. Each suggestion weighs the popularity (saves and
+ * shares) of the courses it appears in.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CourseSuggestService {
+
+    private final MongoTemplate mongoTemplate;
+    private final CourseRepository courseRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.course.suggest.max-results}")
+    private int maxResults;
+
+    @Value("${app.course.suggest.max-prefix-length}")
+    private int maxPrefixLength;
+
+    private SuggestionTrie trie;
+
+    /** Replays the courses changed while a rebuild was reading the collection */
+    private final RebuildReplay<String> rebuildReplay = new RebuildReplay<>();
+
+    @PostConstruct
+    void init() {
+        this.trie = new SuggestionTrie(maxResults, maxPrefixLength);
+
+        Gauge.builder("auth.course.suggest.size", trie, SuggestionTrie::size)
+                .description("Distinct suggestions in the typeahead index")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        CompletableFuture.runAsync(this::rebuild);
+    }
+
+    /**
+     * Returns the most popular suggestions with a word starting with the prefix.
+     *
+     * @param prefix what the user has typed so far
+     * @param limit  maximum number of suggestions, clamped to 1..{@code app.course.suggest.max-results}
+     */
+    public List<CourseSuggestion> suggest(String prefix, int limit) {
+        return trie.top(prefix, Math.max(1, Math.min(limit, maxResults))).stream()
+                .map(s -> new CourseSuggestion(s.text(), SuggestionType.valueOf(s.type()), s.weight()))
+                .toList();
+    }
+
+    @EventListener
+    public void onCourseChanged(CourseChangedEvent event) {
+        apply(event.courseId(), event.course());
+    }
+
+    /**
+     * Rebuilds the whole index from the courses collection.
+     */
+    public void rebuild() {
+        rebuildReplay.run(this::load, courseId -> apply(courseId, courseRepository.findById(courseId).orElse(null)));
+    }
+
+    private void load() {
+        try {
+            Query query = new Query();
+            query.fields().include("title").include("tutor").include("tags").include("saveCount").include("shareCount");
+
+            List<SuggestionTrie.Source> sources = new ArrayList<>();
+            try (Stream<Course> courses = mongoTemplate.stream(query, Course.class)) {
+                courses.forEach(course -> sources.add(
+                    new SuggestionTrie.Source(course.getId(), items(course), weight(course))));
+            }
+            trie.rebuild(sources);
+            log.info("Course suggestion index built from {} courses", sources.size());
+        } catch (RuntimeException ex) {
+            log.warn("Failed to build course suggestion index", ex);
+        }
+    }
+
+    private void apply(String courseId, Course course) {
+        rebuildReplay.changed(courseId);
+        if (course == null) {
+            trie.remove(courseId);
+        } else {
+            trie.put(courseId, items(course), weight(course));
+        }
+    }
+
+    private static List<Item> items(Course course) {
+        List<Item> items = new ArrayList<>();
+        if (course.getTitle() != null) {
+            items.add(new Item(SuggestionType.TITLE.name(), course.getTitle()));
+        }
+        if (course.getTutor() != null) {
+            items.add(new Item(SuggestionType.TUTOR.name(), course.getTutor()));
+        }
+        if (course.getTags() != null) {
+            course.getTags().forEach(tag -> items.add(new Item(SuggestionType.TAG.name(), tag)));
+        }
+        return items;
+    }
+
+    // Every course counts once, plus one per save and per share
+    private static long weight(Course course) {
+        return 1 + course.getSaveCount() + course.getShareCount();
+    }
+}
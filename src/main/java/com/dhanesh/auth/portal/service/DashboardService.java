@@ -4,12 +4,16 @@ import com.dhanesh.auth.portal.dto.DashboardResponse;
 import com.dhanesh.auth.portal.entity.Course;
 import com.dhanesh.auth.portal.entity.StudentProfile;
 import com.dhanesh.auth.portal.repository.CourseRepository;
+import com.dhanesh.auth.portal.util.CourseCatalogSnapshot;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.util.AbstractMap;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -19,6 +23,9 @@ public class DashboardService {
     private final StudentProfileService profileService;
     private final SavedCourseService savedCourseService;
     private final CourseRepository courseRepository;
+    private final CourseCatalogService courseCatalogService;
+
+    private static final int RECOMMENDATIONS = 5;
 
     /**
      * Builds the dashboard view: student profile, saved courses, and top recommended ones.
@@ -34,10 +41,81 @@ public class DashboardService {
 
         List<Course> savedCourses = courseRepository.findAllById(savedCourseIds);
 
-        // Fetch all courses and rank based on user preferences
+        // Rank the catalog based on user preferences
+        List<Course> recommendedCourses = courseCatalogService.current()
+            .map(catalog -> recommend(catalog, profile))
+            .orElseGet(() -> recommend(profile));
+
+        return new DashboardResponse(
+            profile,
+            savedCourses,
+            recommendedCourses
+        );
+    }
+
+    /**
+     * Picks the recommendations from the in-memory catalog, scoring like
+     * {@link #recommend(StudentProfile)} and loading only the picked courses.
+     */
+    private List<Course> recommend(CourseCatalogSnapshot catalog, StudentProfile profile) {
+        List<String> interests = profile.getPrimaryInterests() == null ? List.of() : profile.getPrimaryInterests();
+        long[] interestSet = catalog.tagSet(interests);
+        boolean[] preferredPlatform = catalog.platformsEqualIgnoreCase(profile.getPreferredPlatform());
+        boolean[] preferredDifficulty = catalog.difficultiesEqualIgnoreCase(profile.getPreferredDifficultyLevel());
+
+        // Best rows so far, highest score first, earlier rows first on ties
+        int[] topRows = new int[RECOMMENDATIONS];
+        int[] topScores = new int[RECOMMENDATIONS];
+        int found = 0;
+
+        for (int row = 0; row < catalog.size(); row++) {
+            int score = 0;
+            if (!interests.isEmpty() && catalog.countTags(row, interestSet) > 0) {
+                score += 50;
+            }
+            int platform = catalog.platform(row);
+            if (platform >= 0 && preferredPlatform[platform]) {
+                score += 30;
+            }
+            int difficulty = catalog.difficulty(row);
+            if (difficulty >= 0 && preferredDifficulty[difficulty]) {
+                score += 20;
+            }
+            if (score == 0 || (found == RECOMMENDATIONS && score <= topScores[found - 1])) {
+                continue;
+            }
+
+            int at = Math.min(found, RECOMMENDATIONS - 1);
+            while (at > 0 && topScores[at - 1] < score) {
+                topRows[at] = topRows[at - 1];
+                topScores[at] = topScores[at - 1];
+                at--;
+            }
+            topRows[at] = row;
+            topScores[at] = score;
+            found = Math.min(found + 1, RECOMMENDATIONS);
+        }
+
+        List<String> ids = new ArrayList<>(found);
+        for (int i = 0; i < found; i++) {
+            ids.add(catalog.id(topRows[i]));
+        }
+        Map<String, Course> byId = courseRepository.findAllById(ids).stream()
+            .collect(Collectors.toMap(Course::getId, Function.identity()));
+        return ids.stream()
+            .map(byId::get)
+            .filter(Objects::nonNull)
+            .toList();
+    }
+
+    /**
+     * Picks the recommendations by reading every course, until the catalog
+     * snapshot is available.
+     */
+    private List<Course> recommend(StudentProfile profile) {
         List<Course> allCourses = courseRepository.findAll();
 
-        List<Course> recommendedCourses = allCourses.stream()
+        return allCourses.stream()
             .map(course -> {
                 int score = 0;
 
@@ -61,14 +139,8 @@ public class DashboardService {
             })
             .filter(entry -> entry.getValue() > 0)
             .sorted((a, b) -> b.getValue() - a.getValue())
-            .limit(5)
+            .limit(RECOMMENDATIONS)
             .map(Map.Entry::getKey)
             .collect(Collectors.toList());
-
-        return new DashboardResponse(
-            profile,
-            savedCourses,
-            recommendedCourses
-        );
     }
 }
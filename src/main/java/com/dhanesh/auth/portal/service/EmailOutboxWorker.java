@@ -0,0 +1,258 @@
+package com.dhanesh.auth.portal.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.stereotype.Component;
+
+import com.dhanesh.auth.portal.model.MailStatus;
+import com.dhanesh.auth.portal.service.Redis.RedisEmailOutboxService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Drains the Redis mail outbox on a small pool of worker threads.
+ * <p>
+ * Every node joins the same consumer group, so each mail is delivered by one node.
+ * A failed delivery is retried with capped exponential backoff and dead-lettered after
+ * {@code app.mail.outbox.max-attempts}. Mails left unacknowledged by a crashed node are
+ * claimed and delivered by the others.
+ * <p>
+ * Each read of up to {@value #BATCH_SIZE} entries is sent over a single pooled SMTP
+ * session (see {@link SmtpSessionPool}).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EmailOutboxWorker implements SmartLifecycle {
+
+    private static final int BATCH_SIZE = 10;
+    private static final Duration READ_BLOCK = Duration.ofSeconds(2);
+
+    private final RedisEmailOutboxService outbox;
+    private final EmailService emailService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.mail.outbox.enabled}")
+    private boolean enabled;
+
+    @Value("${app.mail.outbox.workers}")
+    private int workerCount;
+
+    @Value("${app.mail.outbox.max-attempts}")
+    private int maxAttempts;
+
+    @Value("${app.mail.outbox.backoff-initial}")
+    private long backoffInitialSeconds;
+
+    @Value("${app.mail.outbox.backoff-max}")
+    private long backoffMaxSeconds;
+
+    private final String consumerName = "mailer-" + UUID.randomUUID();
+    private final List<Thread> workers = new ArrayList<>();
+    private ScheduledExecutorService scheduler;
+    private volatile boolean running = false;
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        outbox.ensureGroup();
+        running = true;
+
+        for (int i = 0; i < workerCount; i++) {
+            Thread worker = new Thread(this::drain, "mail-outbox-" + (i + 1));
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "mail-outbox-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::requeueDue, 1, 1, TimeUnit.SECONDS);
+        scheduler.scheduleWithFixedDelay(this::reclaimStale, 30, 30, TimeUnit.SECONDS);
+        log.info("Mail outbox started with {} workers as {}", workerCount, consumerName);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        for (Thread worker : workers) {
+            try {
+                worker.join(READ_BLOCK.toMillis() * 2);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        workers.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void drain() {
+        while (running) {
+            try {
+                deliver(outbox.read(consumerName, BATCH_SIZE, READ_BLOCK));
+            } catch (RuntimeException ex) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Mail outbox read failed, retrying shortly", ex);
+                sleepQuietly(READ_BLOCK);
+            }
+        }
+    }
+
+    /**
+     * Sends a batch of outbox entries over one SMTP session and settles each entry:
+     * sent, scheduled for retry or dead-lettered. An entry is acknowledged only once it
+     * is settled; one that could not be settled stays pending and is reclaimed later.
+     */
+    private void deliver(List<MapRecord<String, Object, Object>> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        Map<String, RecordId> recordIds = new LinkedHashMap<>();
+        Map<String, SimpleMailMessage> pending = new LinkedHashMap<>();
+        for (MapRecord<String, Object, Object> record : records) {
+            String id = String.valueOf(record.getValue().get("id"));
+            recordIds.put(id, record.getId());
+            try {
+                Map<Object, Object> mail = outbox.load(id);
+                // Expired past retention, or already delivered before a redelivery
+                if (mail.isEmpty() || MailStatus.SENT.name().equals(mail.get("status"))) {
+                    outbox.acknowledge(record.getId());
+                    continue;
+                }
+                SimpleMailMessage message = new SimpleMailMessage();
+                message.setTo((String) mail.get("to"));
+                message.setSubject((String) mail.get("subject"));
+                message.setText((String) mail.get("body"));
+                pending.put(id, message);
+            } catch (RuntimeException ex) {
+                settle(id, record.getId(), () -> fail(id, ex));
+            }
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        Map<Object, Exception> failed;
+        try {
+            emailService.sendBatch(List.copyOf(pending.values()));
+            failed = Map.of();
+        } catch (MailSendException ex) {
+            failed = ex.getFailedMessages();
+        } catch (RuntimeException ex) {
+            // Nothing is known to have been sent, treat the whole batch as failed
+            failed = new HashMap<>();
+            for (SimpleMailMessage message : pending.values()) {
+                failed.put(message, ex);
+            }
+        }
+
+        for (Map.Entry<String, SimpleMailMessage> entry : pending.entrySet()) {
+            String id = entry.getKey();
+            Exception error = failed.get(entry.getValue());
+            settle(id, recordIds.get(id), () -> {
+                if (error == null) {
+                    outbox.markSent(id);
+                    count("sent");
+                } else {
+                    fail(id, error);
+                }
+            });
+        }
+    }
+
+    /**
+     * Runs the settlement of one entry and acknowledges it only if that succeeded.
+     */
+    private void settle(String id, RecordId recordId, Runnable settlement) {
+        try {
+            settlement.run();
+            outbox.acknowledge(recordId);
+        } catch (RuntimeException ex) {
+            log.warn("Could not settle mail {}, leaving it pending for redelivery", id, ex);
+        }
+    }
+
+    private void fail(String id, Exception ex) {
+        String error = ex.getCause() != null ? ex.getCause().getMessage() : ex.getMessage();
+        long attempts = outbox.recordFailure(id, error);
+        if (attempts >= maxAttempts) {
+            outbox.deadLetter(id, error);
+            count("dead");
+            log.error("Mail {} dead-lettered after {} attempts: {}", id, attempts, error);
+        } else {
+            outbox.scheduleRetry(id, backoff(attempts));
+            count("retried");
+        }
+    }
+
+    private void requeueDue() {
+        try {
+            outbox.requeueDue(100);
+        } catch (RuntimeException ex) {
+            log.warn("Failed to requeue due mail retries", ex);
+        }
+    }
+
+    private void reclaimStale() {
+        try {
+            deliver(outbox.claimStale(consumerName, Duration.ofMinutes(1), BATCH_SIZE));
+        } catch (RuntimeException ex) {
+            log.warn("Failed to reclaim stale mail outbox entries", ex);
+        }
+    }
+
+    /**
+     * Exponential backoff capped at {@code backoff-max}, with up to 20% jitter so
+     * retries from a burst of failures do not hit the SMTP server together.
+     */
+    private Duration backoff(long attempts) {
+        long base = backoffInitialSeconds * 1000L << Math.min(attempts - 1, 20);
+        long capped = Math.min(base, backoffMaxSeconds * 1000L);
+        long jitter = ThreadLocalRandom.current().nextLong(capped / 5 + 1);
+        return Duration.ofMillis(capped + jitter);
+    }
+
+    private void count(String outcome) {
+        meterRegistry.counter("auth.mail.outbox", "outcome", outcome).increment();
+    }
+
+    private static void sleepQuietly(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
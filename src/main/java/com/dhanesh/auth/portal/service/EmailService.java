@@ -1,16 +1,28 @@
 package com.dhanesh.auth.portal.service;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMailMessage;
 import org.springframework.stereotype.Service;
+
+import com.dhanesh.auth.portal.service.SmtpSessionPool.SmtpSession;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
 
-@Service 
+@Service
 @RequiredArgsConstructor
 public class EmailService {
 
-    private final JavaMailSender mailSender;
+    private final JavaMailSenderImpl mailSender;
+    private final SmtpSessionPool sessionPool;
 
     /**
      * Sends a plain text email containing the OTP or any other information.
@@ -25,7 +37,7 @@ public class EmailService {
      *     - Password reset
      * - Enhance for templating (HTML) in future if needed
      */
-    
+
     public void sendOtp(String toEmail, String subject, String body) {
         SimpleMailMessage message = new SimpleMailMessage();
 
@@ -34,9 +46,68 @@ public class EmailService {
         message.setText(body);
 
         try {
-            mailSender.send(message);
+            sendBatch(List.of(message));
         } catch (MailException ex) {
             throw new RuntimeException("Failed to send email to " + toEmail, ex);
         }
     }
+
+    /**
+     * Sends several messages back to back over one pooled SMTP session.
+     * <p>
+     * Messages are sent independently: one rejected message does not stop the rest.
+     * If the session drops mid-batch, the remaining messages continue on a new one.
+     *
+     * @param messages messages to send
+     * @throws MailSendException listing the messages that could not be sent
+     *                           in {@link MailSendException#getFailedMessages()}
+     */
+    public void sendBatch(List<SimpleMailMessage> messages) {
+        Map<Object, Exception> failed = new LinkedHashMap<>();
+
+        SmtpSession session = null;
+        MailException unavailable = null;
+        try {
+            for (SimpleMailMessage message : messages) {
+                if (session == null && unavailable == null) {
+                    try {
+                        session = sessionPool.borrow();
+                    } catch (MailException ex) {
+                        // No session to be had, fail the rest of the batch right away
+                        unavailable = ex;
+                    }
+                }
+                if (unavailable != null) {
+                    failed.put(message, unavailable);
+                    continue;
+                }
+                try {
+                    session.send(toMimeMessage(message));
+                } catch (MessagingException | MailException ex) {
+                    failed.put(message, ex);
+                    if (session.isBroken()) {
+                        sessionPool.release(session);
+                        session = null;
+                    }
+                }
+            }
+        } finally {
+            if (session != null) {
+                sessionPool.release(session);
+            }
+        }
+
+        if (!failed.isEmpty()) {
+            throw new MailSendException(failed);
+        }
+    }
+
+    private MimeMessage toMimeMessage(SimpleMailMessage message) {
+        MimeMessage mimeMessage = mailSender.createMimeMessage();
+        if (message.getFrom() == null && mailSender.getUsername() != null) {
+            message.setFrom(mailSender.getUsername());
+        }
+        message.copyTo(new MimeMailMessage(mimeMessage));
+        return mimeMessage;
+    }
 }
@@ -1,6 +1,7 @@
 package com.dhanesh.auth.portal.service;
 
 import java.security.SecureRandom;
+import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -8,8 +9,10 @@ import org.springframework.stereotype.Service;
 import com.dhanesh.auth.portal.dto.otp.OtpRequest;
 import com.dhanesh.auth.portal.dto.otp.OtpValidationResult;
 import com.dhanesh.auth.portal.dto.otp.OtpVerifyRequest;
+import com.dhanesh.auth.portal.model.MailStatus;
 import com.dhanesh.auth.portal.model.OtpData;
 import com.dhanesh.auth.portal.model.OtpPurpose;
+import com.dhanesh.auth.portal.service.Redis.RedisEmailOutboxService;
 import com.dhanesh.auth.portal.service.Redis.RedisOtpService;
 
 import lombok.RequiredArgsConstructor;
@@ -24,10 +27,14 @@ public class OtpService {
     
     private final EmailService emailService;
     private final RedisOtpService redisOtpService;
+    private final RedisEmailOutboxService emailOutbox;
 
     @Value("${app.otp.duration}")
     private long otpDuration;
 
+    @Value("${app.mail.outbox.enabled}")
+    private boolean outboxEnabled;
+
     /**
      * Generates a 6-digit numeric OTP, stores it in Redis against the user's email with a purpose,
      * and returns the generated OTP.
@@ -38,46 +45,32 @@ public class OtpService {
      */
     public String generateOtp(String email, OtpPurpose purpose) {
         String otp = String.format("%06d", new SecureRandom().nextInt(999999));
-        redisOtpService.saveOtpData("otp:" + email, new OtpData(otp, purpose));
+        redisOtpService.saveOtpData(email, new OtpData(otp, purpose));
         return otp;
     }
 
     /**
      * Validates the provided OTP against the stored OTP in Redis.
-     * Also checks for purpose match and expiration. OTP is deleted upon successful validation.
+     * Also checks for purpose match and expiration. OTP is deleted upon successful validation,
+     * or once too many wrong codes were submitted. All of it happens in one atomic Redis call.
      *
      * @param request the OTP verification request containing email, OTP, and purpose
-     * @return validation result with status and message
+     * @return validation result with status, message and remaining attempts
      */
     public OtpValidationResult validateOtp(OtpVerifyRequest request) {
-        String key = "otp:" + request.email();
-
-        if (!redisOtpService.hasKey(key)) {
-            return new OtpValidationResult(false, "otp is expired, request for the new one");
-        }
-
-        OtpData generatedOtp = redisOtpService.getOtpData(key);
-
-        if (generatedOtp.purpose() != request.purpose()) {
-            return new OtpValidationResult(false, "otp purpose mismatch");
-        }
-
-        if (!generatedOtp.otp().equals(request.otp())) {
-            return new OtpValidationResult(false, "wrong otp");
-        }
-
-        redisOtpService.deleteOtpData(key);
-        return new OtpValidationResult(true, "verified successfully");
+        return redisOtpService.verifyAndConsume(request.email(), request.otp(), request.purpose());
     }
 
     /**
      * Sends a generated OTP to the user's email based on the specified purpose.
      * The subject and message body are dynamically built based on the OTP purpose.
+     * With the mail outbox enabled the mail is only queued and delivered in the background.
      *
      * @param otpRequest the OTP request containing email and purpose
-     * @return true if the OTP was sent successfully
+     * @return the outbox id of the queued mail, for {@link #mailStatus(String)};
+     *         empty when the mail was sent directly
      */
-    public boolean sendOtp(OtpRequest otpRequest) {
+    public Optional<String> sendOtp(OtpRequest otpRequest) {
         String email = otpRequest.email();
         OtpPurpose purpose = otpRequest.purpose();
 
@@ -100,7 +93,18 @@ public class OtpService {
             default -> throw new IllegalArgumentException("Invalid OTP purpose.");
         }
 
+        if (outboxEnabled) {
+            return Optional.of(emailOutbox.enqueue(email, subject, body));
+        }
         emailService.sendOtp(email, subject, body);
-        return true;
+        return Optional.empty();
+    }
+
+    /**
+     * Returns the delivery status of an OTP mail queued by {@link #sendOtp(OtpRequest)},
+     * empty if the id is unknown or its retention has passed.
+     */
+    public Optional<MailStatus> mailStatus(String mailId) {
+        return emailOutbox.status(mailId);
     }
 }
@@ -1,13 +1,25 @@
 package com.dhanesh.auth.portal.service.Redis;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.TimeUnit;
+import java.util.Set;
+import java.util.function.Function;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Service;
 
 import com.dhanesh.auth.portal.dto.auth.SignupTempData;
+import com.dhanesh.auth.portal.model.RedisMode;
+import com.dhanesh.auth.portal.model.SignupReservation;
 
 import lombok.RequiredArgsConstructor;
 
@@ -22,21 +34,68 @@ import lombok.RequiredArgsConstructor;
 public class RedisAuthService {
 
     private final RedisTemplate<String, Object> redisTemplate;
-    private final RedisTemplate<String, Object> userNameCache;
+    private final RedisTemplate<String, SignupTempData> signupRedisTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private static final RedisScript<Long> RESERVE_SCRIPT =
+        RedisScript.of(new ClassPathResource("redis/signup-reserve.lua"), Long.class);
+
+    private static final RedisScript<Long> RELEASE_SCRIPT =
+        RedisScript.of(new ClassPathResource("redis/signup-release.lua"), Long.class);
 
     @Value("${app.session.duration}")
     private long sessionTTL;
 
+    @Value("${app.redis.mode}")
+    private RedisMode redisMode;
+
     /**
      * Stores temporary signup data in Redis, associated with the given email.
-     * Also caches the username to prevent duplicate registrations during session TTL.
+     * Also reserves the username to prevent duplicate registrations during session TTL.
+     * <p>
+     * Both checks and both writes happen in a single atomic script call, so two
+     * concurrent signups can never reserve the same username or email. On Redis Cluster
+     * the two keys live in different slots, so the email is claimed first and released
+     * again if the username turns out to be taken.
      *
      * @param email the email used for signup
      * @param data  the temporary signup data (username, encoded password, etc.)
+     * @return the outcome of the reservation
      */
-    public void storeSignupData(String email, SignupTempData data) {
-        userNameCache.opsForValue().set(data.username(), true, sessionTTL, TimeUnit.MINUTES);
-        redisTemplate.opsForValue().set("signup:" + email, data, sessionTTL, TimeUnit.MINUTES);
+    @SuppressWarnings("unchecked")
+    public SignupReservation storeSignupData(String email, SignupTempData data) {
+        String usernameKey = RedisKeys.usernameReservation(data.username());
+        String sessionKey = RedisKeys.signupSession(email);
+        Duration ttl = Duration.ofMinutes(sessionTTL);
+
+        if (redisMode == RedisMode.CLUSTER) {
+            if (!Boolean.TRUE.equals(signupRedisTemplate.opsForValue().setIfAbsent(sessionKey, data, ttl))) {
+                return SignupReservation.EMAIL_PENDING;
+            }
+            if (!Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(usernameKey, email, ttl))) {
+                signupRedisTemplate.delete(sessionKey);
+                return SignupReservation.USERNAME_TAKEN;
+            }
+            return SignupReservation.RESERVED;
+        }
+
+        // The script stores the payload as-is, so encode it with the signup namespace codec
+        byte[] payload = ((RedisSerializer<SignupTempData>) signupRedisTemplate.getValueSerializer()).serialize(data);
+
+        Long result = signupRedisTemplate.execute(
+            RESERVE_SCRIPT,
+            RedisSerializer.byteArray(),
+            new GenericToStringSerializer<>(Long.class),
+            List.of(usernameKey, sessionKey),
+            email.getBytes(StandardCharsets.UTF_8),
+            payload,
+            String.valueOf(ttl.toSeconds()).getBytes(StandardCharsets.UTF_8)
+        );
+
+        if (result == null || result == 1L) {
+            return SignupReservation.RESERVED;
+        }
+        return result == 0L ? SignupReservation.EMAIL_PENDING : SignupReservation.USERNAME_TAKEN;
     }
 
     /**
@@ -46,8 +105,7 @@ public class RedisAuthService {
      * @return an Optional containing SignupTempData if present, or empty if expired/not found
      */
     public Optional<SignupTempData> getSignupData(String email) {
-        Object value = redisTemplate.opsForValue().get("signup:" + email);
-        return Optional.ofNullable((SignupTempData) value);
+        return Optional.ofNullable(signupRedisTemplate.opsForValue().get(RedisKeys.signupSession(email)));
     }
 
     /**
@@ -57,17 +115,42 @@ public class RedisAuthService {
      * @return true if signup data exists for the email, false otherwise
      */
     public boolean existsByEmail(String email) {
-        return redisTemplate.hasKey("signup:" + email);
+        return redisTemplate.hasKey(RedisKeys.signupSession(email));
     }
 
     /**
-     * Checks if a username is already stored in Redis for uniqueness validation.
+     * Returns the usernames reserved by a pending signup, in one call.
      *
-     * @param username the username to check
-     * @return true if the username exists in cache, false otherwise
+     * @param usernames the usernames to check
+     * @return those of them that are reserved
      */
-    public boolean existsByUsername(String username) {
-        return userNameCache.hasKey(username);
+    public Set<String> reservedUsernames(List<String> usernames) {
+        return present(usernames, RedisKeys::usernameReservation);
+    }
+
+    /**
+     * Returns the emails with a pending signup session, in one call.
+     *
+     * @param emails the emails to check
+     * @return those of them with a signup in progress
+     */
+    public Set<String> pendingSignupEmails(List<String> emails) {
+        return present(emails, RedisKeys::signupSession);
+    }
+
+    // MGET rather than EXISTS per key: one round trip, and split per slot on Redis Cluster
+    private Set<String> present(List<String> values, Function<String, String> key) {
+        Set<String> present = new HashSet<>();
+        if (values.isEmpty()) {
+            return present;
+        }
+        List<String> found = stringRedisTemplate.opsForValue().multiGet(values.stream().map(key).toList());
+        for (int i = 0; found != null && i < values.size(); i++) {
+            if (found.get(i) != null) {
+                present.add(values.get(i));
+            }
+        }
+        return present;
     }
 
     /**
@@ -82,13 +165,22 @@ public class RedisAuthService {
 
     /**
      * Removes both the signup session associated with the given email
-     * and the username cache entry from Redis.
+     * and the username reservation from Redis in one atomic call
+     * (two calls on Redis Cluster, where the keys live in different slots).
+     * The username is only released if this signup owns it.
      *
      * @param email    the email associated with the signup session
      * @param userName the username to remove from uniqueness cache
      */
     public void deleteSignupData(String email, String userName) {
-        redisTemplate.delete("signup:" + email);
-        userNameCache.delete(userName);
+        String usernameKey = RedisKeys.usernameReservation(userName);
+        String sessionKey = RedisKeys.signupSession(email);
+
+        if (redisMode == RedisMode.CLUSTER) {
+            stringRedisTemplate.delete(sessionKey);
+            stringRedisTemplate.execute(RELEASE_SCRIPT, List.of(usernameKey), email);
+        } else {
+            stringRedisTemplate.execute(RELEASE_SCRIPT, List.of(usernameKey, sessionKey), email);
+        }
     }
 }
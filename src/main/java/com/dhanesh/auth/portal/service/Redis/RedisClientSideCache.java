@@ -0,0 +1,226 @@
+package com.dhanesh.auth.portal.service.Redis;
+
+import java.net.SocketAddress;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import com.dhanesh.auth.portal.model.RedisMode;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.RedisChannelHandler;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisConnectionStateListener;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.TrackingArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.codec.StringCodec;
+import io.lettuce.core.protocol.ProtocolVersion;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Opt-in client-side cache for read-mostly string keys, kept coherent by Redis.
+ * <p>
+ * Uses a dedicated RESP3 connection with {@code CLIENT TRACKING ON}: Redis remembers
+ * which keys this client read and pushes an invalidation as soon as any client changes
+ * one of them. Reads are then served from process memory until invalidated, including
+ * "key does not exist" answers. While the connection is down nothing is cached, and the
+ * local copy is dropped on reconnect since the server forgot what it was tracking.
+ * <p>
+ * Disabled by default ({@code app.redis.client-cache.enabled}) and only available in
+ * standalone mode; every read then goes straight to Redis.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RedisClientSideCache {
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.redis.client-cache.enabled}")
+    private boolean enabled;
+
+    @Value("${app.redis.client-cache.max-size}")
+    private long maxSize;
+
+    @Value("${spring.data.redis.host}")
+    private String host;
+
+    @Value("${spring.data.redis.port}")
+    private int port;
+
+    @Value("${spring.data.redis.username}")
+    private String username;
+
+    @Value("${spring.data.redis.password}")
+    private String password;
+
+    @Value("${spring.data.redis.ssl.enabled}")
+    private boolean ssl;
+
+    @Value("${app.redis.mode}")
+    private RedisMode mode;
+
+    private RedisClient client;
+    private StatefulRedisConnection<String, String> connection;
+    private ConcurrentMap<String, Object> entries;
+    private volatile boolean tracking = false;
+
+    private Counter hits;
+    private Counter misses;
+    private Counter invalidations;
+
+    @PostConstruct
+    void init() {
+        if (enabled && mode != RedisMode.STANDALONE) {
+            log.warn("Redis client-side caching only supports standalone mode, disabling it");
+            enabled = false;
+        }
+        if (!enabled) {
+            return;
+        }
+        this.entries = Caffeine.newBuilder().maximumSize(maxSize).<String, Object>build().asMap();
+
+        this.hits = Counter.builder("auth.redis.client-cache.requests")
+                .description("Reads through the Redis client-side cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("auth.redis.client-cache.requests")
+                .description("Reads through the Redis client-side cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.invalidations = Counter.builder("auth.redis.client-cache.invalidations")
+                .description("Keys invalidated by Redis tracking push messages")
+                .register(meterRegistry);
+        Gauge.builder("auth.redis.client-cache.size", entries, ConcurrentMap::size)
+                .description("Keys currently held in the Redis client-side cache")
+                .register(meterRegistry);
+
+        RedisURI.Builder uri = RedisURI.builder()
+                .withHost(host)
+                .withPort(port)
+                .withSsl(ssl);
+        if (username != null && !username.isBlank()) {
+            uri.withAuthentication(username, password);
+        } else if (password != null && !password.isBlank()) {
+            uri.withPassword(password.toCharArray());
+        }
+        this.client = RedisClient.create(uri.build());
+        client.setOptions(ClientOptions.builder().protocolVersion(ProtocolVersion.RESP3).build());
+
+        this.connection = client.connect(StringCodec.UTF8);
+        connection.addListener(message -> {
+            if ("invalidate".equals(message.getType())) {
+                onInvalidate(message.getContent(StringCodec.UTF8::decodeKey));
+            }
+        });
+        connection.addListener(new RedisConnectionStateListener() {
+            @Override
+            public void onRedisDisconnected(RedisChannelHandler<?, ?> channel) {
+                tracking = false;
+                entries.clear();
+            }
+
+            @Override
+            public void onRedisConnected(RedisChannelHandler<?, ?> channel, SocketAddress address) {
+                // Tracking state does not survive a reconnect, turn it back on first
+                connection.async().clientTracking(TrackingArgs.Builder.enabled())
+                        .thenRun(() -> tracking = true);
+            }
+        });
+
+        connection.sync().clientTracking(TrackingArgs.Builder.enabled());
+        tracking = true;
+        log.info("Redis client-side caching enabled");
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (connection != null) {
+            connection.close();
+        }
+        if (client != null) {
+            client.shutdown();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the value of a string key, from process memory when possible.
+     *
+     * @param key the Redis key
+     * @return the value, or null if the key does not exist
+     */
+    public String get(String key) {
+        if (!enabled) {
+            return stringRedisTemplate.opsForValue().get(key);
+        }
+
+        Object cached = entries.get(key);
+        if (cached instanceof CachedValue value) {
+            hits.increment();
+            return value.value().orElse(null);
+        }
+        misses.increment();
+
+        if (!tracking) {
+            return connection.sync().get(key);
+        }
+
+        // Park a unique marker first: an invalidation arriving while the GET is in
+        // flight removes it, and the stale result is then not cached
+        Object loading = new Object();
+        entries.put(key, loading);
+        String value = connection.sync().get(key);
+        entries.replace(key, loading, new CachedValue(Optional.ofNullable(value)));
+        return value;
+    }
+
+    /**
+     * Checks whether a string key exists, from process memory when possible.
+     */
+    public boolean exists(String key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Drops a key from this node's copy right away, without waiting for the push
+     * from Redis. Call after writing the key through another connection.
+     */
+    public void evict(String key) {
+        if (enabled) {
+            entries.remove(key);
+        }
+    }
+
+    private void onInvalidate(List<Object> content) {
+        // ["invalidate", [keys...]] or ["invalidate", null] when everything must go
+        Object keys = content.size() > 1 ? content.get(1) : null;
+        if (keys instanceof List<?> list) {
+            for (Object key : list) {
+                entries.remove(String.valueOf(key));
+                invalidations.increment();
+            }
+        } else {
+            invalidations.increment(entries.size());
+            entries.clear();
+        }
+    }
+
+    private record CachedValue(Optional<String> value) {}
+}
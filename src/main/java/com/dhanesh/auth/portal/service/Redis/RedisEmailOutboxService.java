@@ -0,0 +1,202 @@
+package com.dhanesh.auth.portal.service.Redis;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import com.dhanesh.auth.portal.model.MailStatus;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Durable mail outbox backed by a Redis stream.
+ * <p>
+ * Each mail is stored in a hash (recipient, subject, body, status, attempts) and its
+ * id is appended to the outbox stream, which worker nodes consume as a consumer group.
+ * Failed mails wait in a retry sorted set until their backoff expires; mails that keep
+ * failing are moved to a dead-letter stream.
+ */
+@Service
+@RequiredArgsConstructor
+public class RedisEmailOutboxService {
+
+    private static final String GROUP = "mail-workers";
+
+    private static final RedisScript<String> ENQUEUE_SCRIPT =
+        RedisScript.of(new ClassPathResource("redis/mail-enqueue.lua"), String.class);
+
+    private static final RedisScript<Long> REQUEUE_SCRIPT =
+        RedisScript.of(new ClassPathResource("redis/mail-requeue.lua"), Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    @Qualifier("replicaRedisTemplate")
+    private final StringRedisTemplate replicaRedisTemplate;
+
+    @Value("${app.mail.outbox.retention}")
+    private long retentionMinutes;
+
+    @Value("${app.mail.outbox.max-length}")
+    private long maxLength;
+
+    /**
+     * Stores a mail and queues it for delivery in a single Redis call.
+     *
+     * @return the id of the queued mail, usable with {@link #status(String)}
+     */
+    public String enqueue(String to, String subject, String body) {
+        String id = UUID.randomUUID().toString();
+        stringRedisTemplate.execute(
+            ENQUEUE_SCRIPT,
+            List.of(RedisKeys.mailMessage(id), RedisKeys.MAIL_OUTBOX),
+            id, to, subject, body,
+            String.valueOf(Duration.ofMinutes(retentionMinutes).toSeconds()),
+            String.valueOf(maxLength),
+            String.valueOf(System.currentTimeMillis())
+        );
+        return id;
+    }
+
+    /**
+     * Returns the delivery status of a queued mail, empty once its retention has passed.
+     * Served by a replica when {@code app.redis.read-from} allows it, so it may be a
+     * moment behind; a mail the replica does not know yet is looked up on the primary.
+     */
+    public Optional<MailStatus> status(String id) {
+        Object status = replicaRedisTemplate.opsForHash().get(RedisKeys.mailMessage(id), "status");
+        if (status == null) {
+            status = stringRedisTemplate.opsForHash().get(RedisKeys.mailMessage(id), "status");
+        }
+        return Optional.ofNullable(status).map(value -> MailStatus.valueOf(value.toString()));
+    }
+
+    /**
+     * Creates the consumer group (and the stream) if they do not exist yet.
+     */
+    public void ensureGroup() {
+        try {
+            stringRedisTemplate.opsForStream().createGroup(RedisKeys.MAIL_OUTBOX, ReadOffset.from("0-0"), GROUP);
+        } catch (DataAccessException ex) {
+            // BUSYGROUP: the group already exists
+        }
+    }
+
+    /**
+     * Reads new outbox entries for the given consumer, blocking up to the given time.
+     */
+    public List<MapRecord<String, Object, Object>> read(String consumer, int count, Duration block) {
+        List<MapRecord<String, Object, Object>> records = stringRedisTemplate.opsForStream().read(
+            Consumer.from(GROUP, consumer),
+            StreamReadOptions.empty().count(count).block(block),
+            StreamOffset.create(RedisKeys.MAIL_OUTBOX, ReadOffset.lastConsumed())
+        );
+        return records != null ? records : List.of();
+    }
+
+    /**
+     * Takes over entries that another consumer read but never acknowledged (e.g. it crashed).
+     */
+    public List<MapRecord<String, Object, Object>> claimStale(String consumer, Duration minIdle, int count) {
+        List<RecordId> stale = stringRedisTemplate.opsForStream()
+            .pending(RedisKeys.MAIL_OUTBOX, GROUP, Range.unbounded(), count)
+            .stream()
+            .filter(pending -> pending.getElapsedTimeSinceLastDelivery().compareTo(minIdle) >= 0)
+            .map(PendingMessage::getId)
+            .toList();
+
+        if (stale.isEmpty()) {
+            return List.of();
+        }
+        return stringRedisTemplate.opsForStream()
+            .claim(RedisKeys.MAIL_OUTBOX, GROUP, consumer, minIdle, stale.toArray(RecordId[]::new));
+    }
+
+    public void acknowledge(RecordId recordId) {
+        stringRedisTemplate.opsForStream().acknowledge(RedisKeys.MAIL_OUTBOX, GROUP, recordId);
+    }
+
+    /**
+     * Loads the stored mail (to, subject, body, status, attempts), empty if it has expired.
+     */
+    public Map<Object, Object> load(String id) {
+        return stringRedisTemplate.opsForHash().entries(RedisKeys.mailMessage(id));
+    }
+
+    /**
+     * Marks a mail as delivered and drops its body so OTPs do not linger in Redis.
+     */
+    public void markSent(String id) {
+        String key = RedisKeys.mailMessage(id);
+        stringRedisTemplate.opsForHash().putAll(key, Map.of(
+            "status", MailStatus.SENT.name(),
+            "updatedAt", String.valueOf(System.currentTimeMillis())
+        ));
+        stringRedisTemplate.opsForHash().delete(key, "subject", "body");
+    }
+
+    /**
+     * Records a failed delivery attempt.
+     *
+     * @return the number of attempts made so far
+     */
+    public long recordFailure(String id, String error) {
+        String key = RedisKeys.mailMessage(id);
+        Long attempts = stringRedisTemplate.opsForHash().increment(key, "attempts", 1);
+        stringRedisTemplate.opsForHash().putAll(key, Map.of(
+            "lastError", error != null ? error : "unknown",
+            "updatedAt", String.valueOf(System.currentTimeMillis())
+        ));
+        return attempts != null ? attempts : 1;
+    }
+
+    /**
+     * Parks a failed mail in the retry set until the given delay has passed.
+     */
+    public void scheduleRetry(String id, Duration delay) {
+        stringRedisTemplate.opsForHash().put(RedisKeys.mailMessage(id), "status", MailStatus.RETRYING.name());
+        stringRedisTemplate.opsForZSet().add(RedisKeys.MAIL_RETRY, id, System.currentTimeMillis() + delay.toMillis());
+    }
+
+    /**
+     * Moves due retries back onto the outbox stream.
+     *
+     * @return number of mails requeued
+     */
+    public long requeueDue(int limit) {
+        Long moved = stringRedisTemplate.execute(
+            REQUEUE_SCRIPT,
+            List.of(RedisKeys.MAIL_RETRY, RedisKeys.MAIL_OUTBOX),
+            String.valueOf(System.currentTimeMillis()), String.valueOf(limit)
+        );
+        return moved != null ? moved : 0;
+    }
+
+    /**
+     * Gives up on a mail and records it on the dead-letter stream.
+     */
+    public void deadLetter(String id, String error) {
+        stringRedisTemplate.opsForHash().put(RedisKeys.mailMessage(id), "status", MailStatus.DEAD.name());
+        stringRedisTemplate.opsForStream().add(RedisKeys.MAIL_DEAD_LETTER, Map.of(
+            "id", id,
+            "error", error != null ? error : "unknown"
+        ));
+    }
+}
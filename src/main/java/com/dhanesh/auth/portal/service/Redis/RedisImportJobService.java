@@ -0,0 +1,154 @@
+package com.dhanesh.auth.portal.service.Redis;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import com.dhanesh.auth.portal.dto.admin.UserImportJob;
+import com.dhanesh.auth.portal.model.ImportJobStatus;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Progress of bulk user imports, kept in Redis so any node can report on a job.
+ * <p>
+ * Each job is a hash of counters and timestamps plus a capped list of row errors,
+ * both expiring {@code app.user-import.job-ttl} minutes after the last update.
+ */
+@Service
+@RequiredArgsConstructor
+public class RedisImportJobService {
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    @Qualifier("replicaRedisTemplate")
+    private final StringRedisTemplate replicaRedisTemplate;
+
+    @Value("${app.user-import.job-ttl}")
+    private long jobTtlMinutes;
+
+    @Value("${app.user-import.max-errors}")
+    private long maxErrors;
+
+    public void create(String jobId) {
+        String key = RedisKeys.userImport(jobId);
+        stringRedisTemplate.opsForHash().putAll(key, Map.of(
+            "status", ImportJobStatus.QUEUED.name(),
+            "processed", "0",
+            "imported", "0",
+            "conflicts", "0",
+            "invalid", "0"
+        ));
+        stringRedisTemplate.expire(key, ttl());
+    }
+
+    public void markRunning(String jobId) {
+        String key = RedisKeys.userImport(jobId);
+        stringRedisTemplate.opsForHash().putAll(key, Map.of(
+            "status", ImportJobStatus.RUNNING.name(),
+            "startedAt", String.valueOf(System.currentTimeMillis())
+        ));
+        stringRedisTemplate.expire(key, ttl());
+    }
+
+    /**
+     * Adds the outcome of one chunk to the job's counters and error list.
+     */
+    public void recordChunk(String jobId, long processed, long imported, long conflicts, long invalid, List<String> errors) {
+        String key = RedisKeys.userImport(jobId);
+        stringRedisTemplate.opsForHash().increment(key, "processed", processed);
+        stringRedisTemplate.opsForHash().increment(key, "imported", imported);
+        stringRedisTemplate.opsForHash().increment(key, "conflicts", conflicts);
+        stringRedisTemplate.opsForHash().increment(key, "invalid", invalid);
+        stringRedisTemplate.expire(key, ttl());
+
+        if (!errors.isEmpty()) {
+            String errorsKey = RedisKeys.userImportErrors(jobId);
+            stringRedisTemplate.opsForList().rightPushAll(errorsKey, errors);
+            stringRedisTemplate.opsForList().trim(errorsKey, 0, maxErrors - 1);
+            stringRedisTemplate.expire(errorsKey, ttl());
+        }
+    }
+
+    public void finish(String jobId, ImportJobStatus status, String message) {
+        String key = RedisKeys.userImport(jobId);
+        stringRedisTemplate.opsForHash().putAll(key, Map.of(
+            "status", status.name(),
+            "finishedAt", String.valueOf(System.currentTimeMillis()),
+            "message", message != null ? message : ""
+        ));
+        stringRedisTemplate.expire(key, ttl());
+    }
+
+    /**
+     * Reads a job's progress, with throughput measured from its start to now
+     * (or to its end once finished).
+     */
+    public Optional<UserImportJob> get(String jobId) {
+        return read(stringRedisTemplate, jobId);
+    }
+
+    /**
+     * Like {@link #get(String)}, but served by a replica when {@code app.redis.read-from}
+     * allows it, so the progress may be a moment behind. A job the replica does not
+     * know yet is read from the primary.
+     */
+    public Optional<UserImportJob> poll(String jobId) {
+        return read(replicaRedisTemplate, jobId).or(() -> get(jobId));
+    }
+
+    private Optional<UserImportJob> read(StringRedisTemplate template, String jobId) {
+        Map<Object, Object> fields = template.opsForHash().entries(RedisKeys.userImport(jobId));
+        if (fields.isEmpty()) {
+            return Optional.empty();
+        }
+
+        long processed = number(fields, "processed");
+        Instant startedAt = instant(fields, "startedAt");
+        Instant finishedAt = instant(fields, "finishedAt");
+
+        double rowsPerSecond = 0;
+        if (startedAt != null) {
+            long elapsedMillis = Duration.between(startedAt, finishedAt != null ? finishedAt : Instant.now()).toMillis();
+            rowsPerSecond = elapsedMillis > 0 ? processed * 1000.0 / elapsedMillis : 0;
+        }
+
+        String message = (String) fields.get("message");
+        List<String> errors = template.opsForList().range(RedisKeys.userImportErrors(jobId), 0, -1);
+
+        return Optional.of(new UserImportJob(
+            jobId,
+            ImportJobStatus.valueOf((String) fields.get("status")),
+            processed,
+            number(fields, "imported"),
+            number(fields, "conflicts"),
+            number(fields, "invalid"),
+            rowsPerSecond,
+            startedAt,
+            finishedAt,
+            message == null || message.isEmpty() ? null : message,
+            errors != null ? errors : List.of()
+        ));
+    }
+
+    private Duration ttl() {
+        return Duration.ofMinutes(jobTtlMinutes);
+    }
+
+    private static long number(Map<Object, Object> fields, String name) {
+        Object value = fields.get(name);
+        return value != null ? Long.parseLong((String) value) : 0;
+    }
+
+    private static Instant instant(Map<Object, Object> fields, String name) {
+        Object value = fields.get(name);
+        return value != null ? Instant.ofEpochMilli(Long.parseLong((String) value)) : null;
+    }
+}
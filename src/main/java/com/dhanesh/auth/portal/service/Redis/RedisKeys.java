@@ -0,0 +1,80 @@
+package com.dhanesh.auth.portal.service.Redis;
+
+/**
+ * Every Redis key the application uses, in one place.
+ * <p>
+ * Keys that a script or a multi-key command touches together carry the same hash
+ * tag (the part in braces), so they land in the same slot on Redis Cluster:
+ * an OTP and its attempt counter share the email, an IP's window and cooldown share
+ * the IP, a sign-in failure counter and its lock share the account or IP, and the
+ * whole mail outbox shares {@code {mail}}. A signup session and its username
+ * reservation cannot share a tag, see {@code RedisAuthService}.
+ */
+public final class RedisKeys {
+
+    private static final String PREFIX = "authportal:";
+
+    public static final String MAIL_OUTBOX = PREFIX + "{mail}:outbox";
+    public static final String MAIL_RETRY = PREFIX + "{mail}:retry";
+    public static final String MAIL_DEAD_LETTER = PREFIX + "{mail}:dead";
+    public static final String REVOKED_TOKEN_INDEX = PREFIX + "revoked-index";
+
+    private RedisKeys() {}
+
+    public static String signupSession(String email) {
+        return PREFIX + "signup:{" + email + "}";
+    }
+
+    public static String usernameReservation(String username) {
+        return PREFIX + "username:{" + username + "}";
+    }
+
+    public static String otp(String email) {
+        return PREFIX + "otp:{" + email + "}";
+    }
+
+    public static String otpAttempts(String email) {
+        return PREFIX + "otp:{" + email + "}:attempts";
+    }
+
+    public static String rateWindow(String ip) {
+        return PREFIX + "rate:{" + ip + "}";
+    }
+
+    public static String cooldown(String ip) {
+        return PREFIX + "cooldown:{" + ip + "}";
+    }
+
+    public static String mailMessage(String id) {
+        return PREFIX + "{mail}:msg:" + id;
+    }
+
+    public static String tokenVersion(String userId) {
+        return PREFIX + "token-version:" + userId;
+    }
+
+    // v2 entries hold no password hash; v1 entries just expire
+    public static String user(String loginId) {
+        return PREFIX + "user:v2:" + loginId;
+    }
+
+    public static String revokedToken(String tokenId) {
+        return PREFIX + "revoked:" + tokenId;
+    }
+
+    public static String loginFailures(String subject) {
+        return PREFIX + "login-failures:{" + subject + "}";
+    }
+
+    public static String loginLock(String subject) {
+        return PREFIX + "login-lock:{" + subject + "}";
+    }
+
+    public static String userImport(String jobId) {
+        return PREFIX + "user-import:{" + jobId + "}";
+    }
+
+    public static String userImportErrors(String jobId) {
+        return PREFIX + "user-import:{" + jobId + "}:errors";
+    }
+}
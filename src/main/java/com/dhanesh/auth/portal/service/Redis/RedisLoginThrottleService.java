@@ -0,0 +1,198 @@
+package com.dhanesh.auth.portal.service.Redis;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import com.dhanesh.auth.portal.exception.AccountLockedException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Throttles sign-in attempts per account and per IP with progressive lockout.
+ * <p>
+ * Failed attempts are counted in Redis; once a subject reaches its limit it is locked,
+ * and every further failure doubles the lock up to a maximum. A locked attempt is
+ * rejected before the user is loaded or the password hashed, so a credential-stuffing
+ * burst cannot be turned into BCrypt work. Locks seen by this node are kept in a
+ * local near-cache until they run out, so repeat attempts do not even reach Redis.
+ * <p>
+ * A successful sign-in clears the account's failures but not the IP's, so one valid
+ * account cannot be used to reset an IP that is guessing at others.
+ */
+@Service
+@RequiredArgsConstructor
+public class RedisLoginThrottleService {
+
+    private static final RedisScript<Long> FAILURE_SCRIPT =
+        RedisScript.of(new ClassPathResource("redis/login-failure.lua"), Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.login.throttle.account.max-failures}")
+    private long accountMaxFailures;
+
+    @Value("${app.login.throttle.ip.max-failures}")
+    private long ipMaxFailures;
+
+    @Value("${app.login.throttle.window}")
+    private long windowMinutes;
+
+    @Value("${app.login.throttle.lock-initial}")
+    private long lockInitialSeconds;
+
+    @Value("${app.login.throttle.lock-max}")
+    private long lockMaxSeconds;
+
+    @Value("${app.login.throttle.local-cache-size}")
+    private long localCacheSize;
+
+    /** Subjects known to be locked, each expiring together with its Redis lock */
+    private Cache<String, Long> lockedSubjects;
+
+    private Counter localRejections;
+    private Counter redisRejections;
+
+    @PostConstruct
+    void init() {
+        this.lockedSubjects = Caffeine.newBuilder()
+                .maximumSize(localCacheSize)
+                .expireAfter(new Expiry<String, Long>() {
+                    @Override
+                    public long expireAfterCreate(String subject, Long expiresAtNanos, long currentTime) {
+                        return Math.max(0, expiresAtNanos - currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String subject, Long expiresAtNanos, long currentTime, long currentDuration) {
+                        return Math.max(0, expiresAtNanos - currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String subject, Long expiresAtNanos, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+
+        this.localRejections = Counter.builder("auth.login.throttle.rejections")
+                .description("Sign-in attempts rejected by a lockout, by where the lock was found")
+                .tag("source", "local")
+                .register(meterRegistry);
+        this.redisRejections = Counter.builder("auth.login.throttle.rejections")
+                .description("Sign-in attempts rejected by a lockout, by where the lock was found")
+                .tag("source", "redis")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Rejects the attempt if the account or the IP is locked.
+     *
+     * @param loginId the username or email being signed in to
+     * @param ip      client IP address
+     * @throws AccountLockedException if either is locked
+     */
+    public void checkAllowed(String loginId, String ip) {
+        String account = accountSubject(loginId);
+        String address = ipSubject(ip);
+
+        long localMillis = Math.max(localLockMillis(account), localLockMillis(address));
+        if (localMillis > 0) {
+            localRejections.increment();
+            throw locked(localMillis);
+        }
+
+        // Lock values hold the lock's end as epoch millis on the Redis clock
+        List<String> locks = stringRedisTemplate.opsForValue()
+                .multiGet(List.of(RedisKeys.loginLock(account), RedisKeys.loginLock(address)));
+        long now = System.currentTimeMillis();
+        long accountMillis = remainingMillis(locks, 0, now);
+        long ipMillis = remainingMillis(locks, 1, now);
+
+        if (accountMillis > 0 || ipMillis > 0) {
+            rememberLock(account, accountMillis);
+            rememberLock(address, ipMillis);
+            redisRejections.increment();
+            throw locked(Math.max(accountMillis, ipMillis));
+        }
+    }
+
+    /**
+     * Counts a failed attempt against both the account and the IP, locking either
+     * once it reaches its limit.
+     */
+    public void recordFailure(String loginId, String ip) {
+        String account = accountSubject(loginId);
+        String address = ipSubject(ip);
+
+        rememberLock(account, recordFailure(account, accountMaxFailures));
+        rememberLock(address, recordFailure(address, ipMaxFailures));
+    }
+
+    /**
+     * Clears the account's failures and lock after a successful sign-in.
+     */
+    public void recordSuccess(String loginId) {
+        String account = accountSubject(loginId);
+        lockedSubjects.invalidate(account);
+        stringRedisTemplate.delete(List.of(RedisKeys.loginFailures(account), RedisKeys.loginLock(account)));
+    }
+
+    private long recordFailure(String subject, long maxFailures) {
+        Long lockMillis = stringRedisTemplate.execute(
+            FAILURE_SCRIPT,
+            List.of(RedisKeys.loginFailures(subject), RedisKeys.loginLock(subject)),
+            String.valueOf(maxFailures),
+            String.valueOf(TimeUnit.MINUTES.toMillis(windowMinutes)),
+            String.valueOf(TimeUnit.SECONDS.toMillis(lockInitialSeconds)),
+            String.valueOf(TimeUnit.SECONDS.toMillis(lockMaxSeconds))
+        );
+        return lockMillis != null ? lockMillis : 0;
+    }
+
+    private long localLockMillis(String subject) {
+        Long expiresAtNanos = lockedSubjects.getIfPresent(subject);
+        if (expiresAtNanos == null) {
+            return 0;
+        }
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(expiresAtNanos - System.nanoTime()));
+    }
+
+    private void rememberLock(String subject, long millis) {
+        if (millis > 0) {
+            lockedSubjects.put(subject, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+    }
+
+    private static long remainingMillis(List<String> locks, int index, long now) {
+        String lockedUntil = locks != null ? locks.get(index) : null;
+        return lockedUntil != null ? Math.max(0, Long.parseLong(lockedUntil) - now) : 0;
+    }
+
+    private static AccountLockedException locked(long millis) {
+        // Round up so a client never retries a moment too early
+        long seconds = (millis + 999) / 1000;
+        return new AccountLockedException("Too many failed sign-in attempts. Try again in " + seconds + " seconds.", seconds);
+    }
+
+    private static String accountSubject(String loginId) {
+        return "account:" + loginId.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String ipSubject(String ip) {
+        return "ip:" + ip;
+    }
+}
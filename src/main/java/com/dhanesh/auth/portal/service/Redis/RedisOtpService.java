@@ -1,12 +1,19 @@
 package com.dhanesh.auth.portal.service.Redis;
 
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 
+import com.dhanesh.auth.portal.dto.otp.OtpValidationResult;
+import com.dhanesh.auth.portal.dto.otp.OtpValidationResult.Status;
 import com.dhanesh.auth.portal.model.OtpData;
+import com.dhanesh.auth.portal.model.OtpPurpose;
 
 import lombok.RequiredArgsConstructor;
 
@@ -20,30 +27,72 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class RedisOtpService {
 
-    private final RedisTemplate<String, Object> redisTemplate;
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> VERIFY_SCRIPT =
+        RedisScript.of(new ClassPathResource("redis/otp-verify.lua"), List.class);
+
+    private final RedisTemplate<String, OtpData> otpRedisTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
 
     @Value("${app.otp.duration}")
     private long otpDuration;
 
+    @Value("${app.otp.max-attempts}")
+    private int maxAttempts;
+
     /**
      * Stores OTP data in Redis for a given email.
      * The data will expire automatically after the configured duration.
+     * A new OTP starts with a fresh wrong-attempt budget.
      *
-     * @param email   the user's email used as Redis key
+     * @param email   the user's email the OTP is issued for
      * @param otpData the OTP data to store (code, purpose, timestamp, etc.)
      */
     public void saveOtpData(String email, OtpData otpData) {
-        redisTemplate.opsForValue().set(email, otpData, otpDuration, TimeUnit.MINUTES);
+        otpRedisTemplate.opsForValue().set(RedisKeys.otp(email), otpData, otpDuration, TimeUnit.MINUTES);
+        otpRedisTemplate.delete(RedisKeys.otpAttempts(email));
+    }
+
+    /**
+     * Checks a submitted OTP and consumes it, atomically and in one round trip.
+     * <p>
+     * The stored OTP is deleted on success and once {@code app.otp.max-attempts}
+     * wrong codes have been submitted, so it cannot be guessed indefinitely and two
+     * parallel verifications cannot both succeed.
+     *
+     * @param email   the email the OTP was issued for
+     * @param otp     the submitted code
+     * @param purpose the purpose the OTP is being used for
+     * @return the outcome with the number of attempts left
+     */
+    public OtpValidationResult verifyAndConsume(String email, String otp, OtpPurpose purpose) {
+        List<?> result = stringRedisTemplate.execute(
+            VERIFY_SCRIPT,
+            List.of(RedisKeys.otp(email), RedisKeys.otpAttempts(email)),
+            otp != null ? otp : "", purpose.name(), String.valueOf(maxAttempts)
+        );
+
+        long status = ((Number) result.get(0)).longValue();
+        long attemptsRemaining = ((Number) result.get(1)).longValue();
+
+        Status outcome = switch ((int) status) {
+            case 1 -> Status.VERIFIED;
+            case 0 -> Status.EXPIRED;
+            case -1 -> Status.PURPOSE_MISMATCH;
+            case -2 -> Status.WRONG_OTP;
+            default -> Status.ATTEMPTS_EXHAUSTED;
+        };
+        return OtpValidationResult.of(outcome, attemptsRemaining);
     }
 
     /**
      * Retrieves the OTP data associated with the given email.
      *
-     * @param email the email used as key
+     * @param email the email the OTP was issued for
      * @return the stored OTP data, or null if not found or expired
      */
     public OtpData getOtpData(String email) {
-        return (OtpData) redisTemplate.opsForValue().get(email);
+        return otpRedisTemplate.opsForValue().get(RedisKeys.otp(email));
     }
 
     /**
@@ -53,7 +102,7 @@ public class RedisOtpService {
      * @return true if OTP data exists, false if expired or never created
      */
     public boolean hasKey(String email) {
-        return redisTemplate.hasKey(email);
+        return otpRedisTemplate.hasKey(RedisKeys.otp(email));
     }
 
     /**
@@ -63,6 +112,6 @@ public class RedisOtpService {
      * @param email the email whose OTP data should be removed
      */
     public void deleteOtpData(String email) {
-        redisTemplate.delete(email);
+        otpRedisTemplate.delete(List.of(RedisKeys.otp(email), RedisKeys.otpAttempts(email)));
     }
 }
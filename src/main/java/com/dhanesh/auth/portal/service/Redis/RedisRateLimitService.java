@@ -1,18 +1,46 @@
 package com.dhanesh.auth.portal.service.Redis;
 
+import java.util.List;
+import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 
+import com.dhanesh.auth.portal.model.RateLimitAlgorithm;
+import com.dhanesh.auth.portal.model.RateLimitDecision;
+import com.dhanesh.auth.portal.model.RateLimitDecision.Outcome;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 
-@Service 
+/**
+ * Per-IP limiter for OTP requests: at most {@code ip.otp.limit} requests per window
+ * and a cooldown between consecutive requests. Both checks run in one Lua script,
+ * so a request costs a single round trip and concurrent requests cannot slip through.
+ * <p>
+ * Rejections are remembered in a local near-cache until the Redis TTL that caused
+ * them runs out, so an IP hammering the endpoint is turned away without any Redis
+ * call. While blocked locally its requests no longer count towards the window.
+ */
+@Service
 @RequiredArgsConstructor
 public class RedisRateLimitService {
 
-    private final RedisTemplate<String, Object> template;
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> RATE_LIMIT_SCRIPT =
+        RedisScript.of(new ClassPathResource("redis/rate-limit.lua"), List.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final MeterRegistry meterRegistry;
 
     @Value("${ip.otp.limit}")
     private long otpLimit;
@@ -20,42 +48,106 @@ public class RedisRateLimitService {
     @Value("${ip.otp.limit.duration}")
     private long duration;
 
+    @Value("${ip.otp.limit.algorithm}")
+    private RateLimitAlgorithm algorithm;
+
     @Value("${otp.cooldown}")
     private long cooldown;
 
-    /**
-     * Checks if the IP is under cooldown. If not, set a cooldown lock.
-     */
-    public boolean isInCooldown(String ip) {
-        String cooldownKey = "authportal:cooldown:ip:" + ip;
-
-        if (template.hasKey(cooldownKey)) {
-            return true; // Still in cooldown
-        }
-
-        template.opsForValue().set(cooldownKey, "LOCKED", cooldown, TimeUnit.SECONDS);
-        return false;
+    @Value("${ip.otp.limit.local-cache-size}")
+    private long localCacheSize;
+
+    /** IPs known to be rejected, each expiring when its Redis limit clears */
+    private Cache<String, LocalBlock> blockedIps;
+
+    private Counter localDecisions;
+    private Counter redisDecisions;
+
+    @PostConstruct
+    void init() {
+        this.blockedIps = Caffeine.newBuilder()
+                .maximumSize(localCacheSize)
+                .expireAfter(new Expiry<String, LocalBlock>() {
+                    @Override
+                    public long expireAfterCreate(String ip, LocalBlock block, long currentTime) {
+                        return Math.max(0, block.expiresAtNanos() - currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String ip, LocalBlock block, long currentTime, long currentDuration) {
+                        return Math.max(0, block.expiresAtNanos() - currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String ip, LocalBlock block, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+
+        this.localDecisions = Counter.builder("auth.otp.ratelimit.decisions")
+                .description("OTP rate limit decisions by where they were made")
+                .tag("source", "local")
+                .register(meterRegistry);
+        this.redisDecisions = Counter.builder("auth.otp.ratelimit.decisions")
+                .description("OTP rate limit decisions by where they were made")
+                .tag("source", "redis")
+                .register(meterRegistry);
     }
 
     /**
-     * Rate limits max OTP requests per X minutes.
+     * Records an OTP request from the IP and decides whether it may proceed.
+     * Requests that reach Redis count towards the window even when the cooldown
+     * rejects them; requests answered from the near-cache do not.
+     *
+     * @param ip client IP address
+     * @return the decision, with the wait time when the request is rejected
      */
-    public boolean isAllowed(String ip) {
-        String rateKey = "authportal:rate:ip:" + ip;
-
-        Long incrementResult = template.opsForValue().increment(rateKey);
-        long count = (incrementResult != null) ? incrementResult : 0L;
+    public RateLimitDecision check(String ip) {
+        LocalBlock block = blockedIps.getIfPresent(ip);
+        if (block != null) {
+            long leftNanos = block.expiresAtNanos() - System.nanoTime();
+            if (leftNanos > 0) {
+                localDecisions.increment();
+                return new RateLimitDecision(block.outcome(), toSeconds(TimeUnit.NANOSECONDS.toMillis(leftNanos)), block.remaining());
+            }
+        }
 
-        if (count == 1L) {
-            template.expire(rateKey, duration, TimeUnit.MINUTES);
+        List<?> result = stringRedisTemplate.execute(
+            RATE_LIMIT_SCRIPT,
+            List.of(RedisKeys.rateWindow(ip), RedisKeys.cooldown(ip)),
+            algorithm == RateLimitAlgorithm.SLIDING_WINDOW ? "sliding" : "fixed",
+            String.valueOf(otpLimit),
+            String.valueOf(TimeUnit.MINUTES.toMillis(duration)),
+            String.valueOf(TimeUnit.SECONDS.toMillis(cooldown)),
+            UUID.randomUUID().toString()
+        );
+
+        long status = ((Number) result.get(0)).longValue();
+        long retryAfterMillis = ((Number) result.get(1)).longValue();
+        long remaining = ((Number) result.get(2)).longValue();
+
+        Outcome outcome = status > 0 ? Outcome.ALLOWED : status == 0 ? Outcome.RATE_LIMITED : Outcome.COOLDOWN;
+        redisDecisions.increment();
+
+        if (outcome != Outcome.ALLOWED && retryAfterMillis > 0) {
+            rememberBlock(ip, outcome, remaining, retryAfterMillis);
+        } else if (outcome == Outcome.ALLOWED) {
+            // The script just started this IP's cooldown
+            rememberBlock(ip, Outcome.COOLDOWN, remaining, TimeUnit.SECONDS.toMillis(cooldown));
         }
+        return new RateLimitDecision(outcome, toSeconds(retryAfterMillis), remaining);
+    }
 
-        return count <= otpLimit;
+    private void rememberBlock(String ip, Outcome outcome, long remaining, long millis) {
+        long expiresAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+        blockedIps.put(ip, new LocalBlock(outcome, remaining, expiresAt));
     }
 
-    public long getCooldownRemaining(String ip) {
-        String cooldownKey = "authportal:cooldown:ip:" + ip;
-        Long remaining = template.getExpire(cooldownKey, TimeUnit.SECONDS);
-        return (remaining != null && remaining > 0) ? remaining : 0;
+    // Round up so a client never retries a moment too early
+    private static long toSeconds(long millis) {
+        return (millis + 999) / 1000;
     }
+
+    private record LocalBlock(Outcome outcome, long remaining, long expiresAtNanos) {}
 }
@@ -0,0 +1,188 @@
+package com.dhanesh.auth.portal.service.Redis;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+
+import com.dhanesh.auth.portal.util.BloomFilter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Denylist of revoked JWT ids (jti), for logout before a token expires.
+ * <p>
+ * Each revoked id is a Redis key that expires together with the token, plus an entry
+ * in a sorted set scored by expiry used to rebuild state. Every node keeps a Bloom
+ * filter of the revoked ids, fed over Redis pub/sub, so checking a token that was
+ * never revoked costs no network call; only probable hits are confirmed in Redis.
+ * The filter is rebuilt periodically to drop ids whose tokens have expired.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RedisTokenRevocationService implements MessageListener {
+
+    private static final String REVOKED_CHANNEL = "authportal:token-revocation";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final RedisClientSideCache clientSideCache;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${jwt.revocation.expected-revocations}")
+    private long expectedRevocations;
+
+    @Value("${jwt.revocation.false-positive-rate}")
+    private double falsePositiveRate;
+
+    @Value("${jwt.revocation.rebuild-interval}")
+    private long rebuildIntervalMinutes;
+
+    private volatile BloomFilter filter;
+    private volatile BloomFilter building;
+    private volatile boolean ready = false;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    private ScheduledExecutorService scheduler;
+    private Counter filterChecks;
+    private Counter redisChecks;
+
+    @PostConstruct
+    void init() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(REVOKED_CHANNEL));
+
+        this.filterChecks = Counter.builder("auth.token.revocation.checks")
+                .description("Revocation checks by where they were answered")
+                .tag("source", "filter")
+                .register(meterRegistry);
+        this.redisChecks = Counter.builder("auth.token.revocation.checks")
+                .description("Revocation checks by where they were answered")
+                .tag("source", "redis")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        CompletableFuture.runAsync(this::rebuild);
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "token-revocation-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::rebuild, rebuildIntervalMinutes, rebuildIntervalMinutes, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Revokes a token id until the token's own expiry. Revoking an expired token is a no-op.
+     *
+     * @param tokenId   the token's jti
+     * @param expiresAt the token's expiry
+     */
+    public void revoke(String tokenId, Instant expiresAt) {
+        Duration remaining = Duration.between(Instant.now(), expiresAt);
+        if (tokenId == null || remaining.isNegative() || remaining.isZero()) {
+            return;
+        }
+
+        stringRedisTemplate.opsForValue().set(RedisKeys.revokedToken(tokenId), "1", remaining);
+        stringRedisTemplate.opsForZSet().add(RedisKeys.REVOKED_TOKEN_INDEX, tokenId, expiresAt.toEpochMilli());
+        addLocal(tokenId);
+        stringRedisTemplate.convertAndSend(REVOKED_CHANNEL, tokenId);
+    }
+
+    /**
+     * Checks whether a token id was revoked. Answered locally unless the Bloom filter
+     * reports a probable hit or has not been built yet.
+     */
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null) {
+            return false;
+        }
+        if (ready && !filter.mightContain(tokenId)) {
+            filterChecks.increment();
+            return false;
+        }
+        redisChecks.increment();
+        return clientSideCache.exists(RedisKeys.revokedToken(tokenId));
+    }
+
+    /**
+     * Rebuilds the filter from the ids whose tokens have not expired yet, and trims
+     * expired ids from the index.
+     */
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long now = System.currentTimeMillis();
+            stringRedisTemplate.opsForZSet().removeRangeByScore(RedisKeys.REVOKED_TOKEN_INDEX, Double.NEGATIVE_INFINITY, now);
+
+            BloomFilter next = new BloomFilter(expectedRevocations, falsePositiveRate);
+            building = next;
+
+            Set<String> live = stringRedisTemplate.opsForZSet()
+                    .rangeByScore(RedisKeys.REVOKED_TOKEN_INDEX, now, Double.POSITIVE_INFINITY);
+            if (live != null) {
+                live.forEach(next::put);
+            }
+
+            filter = next;
+            ready = true;
+            log.debug("Token revocation filter rebuilt with {} ids", live != null ? live.size() : 0);
+        } catch (RuntimeException ex) {
+            log.warn("Failed to rebuild token revocation filter", ex);
+        } finally {
+            building = null;
+            rebuilding.set(false);
+        }
+    }
+
+    @Override
+    public void onMessage(@NonNull Message message, byte[] pattern) {
+        addLocal(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    private void addLocal(String tokenId) {
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(tokenId);
+        }
+
+        // Also feed a rebuild in progress so the new filter does not miss this id
+        BloomFilter next = building;
+        if (next != null) {
+            next.put(tokenId);
+        }
+    }
+}
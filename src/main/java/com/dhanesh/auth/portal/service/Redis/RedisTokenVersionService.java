@@ -0,0 +1,101 @@
+package com.dhanesh.auth.portal.service.Redis;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Service for managing per-user token versions in Redis.
+ * <p>
+ * Every issued JWT carries the user's current version. Bumping the version
+ * (role change, deletion, password reset) revokes all tokens issued before it.
+ * Lookups go through a short-lived local near-cache to avoid a Redis call per request,
+ * or through the tracked {@link RedisClientSideCache} when that is enabled. Both may
+ * briefly miss a bump made on another node, so versions put into new tokens are read
+ * from Redis itself ({@link #versionForIssue}).
+ */
+@Service
+@RequiredArgsConstructor
+public class RedisTokenVersionService {
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisClientSideCache clientSideCache;
+
+    @Value("${jwt.token-version.cache-ttl}")
+    private long cacheTtl;
+
+    @Value("${jwt.token-version.cache-max-size}")
+    private long cacheMaxSize;
+
+    private Cache<String, Long> nearCache;
+
+    @PostConstruct
+    void init() {
+        this.nearCache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(cacheTtl))
+                .build();
+    }
+
+    /**
+     * Returns the current token version of a user (0 if never bumped).
+     *
+     * @param userId the user's ID
+     * @return the current token version
+     */
+    public long currentVersion(String userId) {
+        if (clientSideCache.isEnabled()) {
+            String value = clientSideCache.get(RedisKeys.tokenVersion(userId));
+            return value != null ? Long.parseLong(value) : 0L;
+        }
+        return nearCache.get(userId, id -> {
+            String value = stringRedisTemplate.opsForValue().get(RedisKeys.tokenVersion(id));
+            return value != null ? Long.parseLong(value) : 0L;
+        });
+    }
+
+    /**
+     * Returns the current token version of a user straight from Redis, for embedding
+     * in a new token. A cached, older version would make the token look revoked as
+     * soon as the cache caught up. Also refreshes the near-cache.
+     *
+     * @param userId the user's ID
+     * @return the current token version
+     */
+    public long versionForIssue(String userId) {
+        String value = stringRedisTemplate.opsForValue().get(RedisKeys.tokenVersion(userId));
+        long version = value != null ? Long.parseLong(value) : 0L;
+        nearCache.put(userId, version);
+        return version;
+    }
+
+    /**
+     * Checks whether a token issued with the given version is still valid.
+     *
+     * @param userId       the user's ID
+     * @param tokenVersion the version embedded in the token
+     * @return true if the token has not been revoked by a version bump
+     */
+    public boolean isCurrent(String userId, long tokenVersion) {
+        return tokenVersion >= currentVersion(userId);
+    }
+
+    /**
+     * Increments the user's token version, revoking every token issued so far.
+     *
+     * @param userId the user's ID
+     */
+    public void bump(String userId) {
+        stringRedisTemplate.opsForValue().increment(RedisKeys.tokenVersion(userId));
+        nearCache.invalidate(userId);
+        clientSideCache.evict(RedisKeys.tokenVersion(userId));
+    }
+}
@@ -0,0 +1,119 @@
+package com.dhanesh.auth.portal.service.Redis;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+
+import com.dhanesh.auth.portal.entity.Users;
+import com.dhanesh.auth.portal.model.CachedUser;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Two-tier cache of user records keyed by login id (username or email).
+ * <p>
+ * L1 is a size-bounded in-process cache, L2 is Redis with a TTL. Changes to a user
+ * are broadcast over Redis pub/sub so every node drops its local copy.
+ */
+@Service
+@RequiredArgsConstructor
+public class RedisUserCacheService implements MessageListener {
+
+    private static final String EVICT_CHANNEL = "authportal:user-cache:evict";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    @Value("${app.user-cache.max-size}")
+    private long maxSize;
+
+    @Value("${app.user-cache.local-ttl}")
+    private long localTtl;
+
+    @Value("${app.user-cache.ttl}")
+    private long redisTtl;
+
+    private Cache<String, CachedUser> localCache;
+
+    @PostConstruct
+    void init() {
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(localTtl))
+                .build();
+        listenerContainer.addMessageListener(this, new ChannelTopic(EVICT_CHANNEL));
+    }
+
+    /**
+     * Returns the cached user for a login id, falling back to Redis and then to the loader.
+     *
+     * @param loginId username or email
+     * @param loader  authoritative lookup used on a miss in both tiers
+     * @return the user if found
+     */
+    public Optional<Users> get(String loginId, Function<String, Optional<Users>> loader) {
+        CachedUser cached = localCache.getIfPresent(loginId);
+        if (cached != null) {
+            return Optional.of(cached.toUser());
+        }
+
+        Object remote = redisTemplate.opsForValue().get(RedisKeys.user(loginId));
+        if (remote instanceof CachedUser user) {
+            localCache.put(loginId, user);
+            return Optional.of(user.toUser());
+        }
+
+        Optional<Users> loaded = loader.apply(loginId);
+        loaded.ifPresent(user -> {
+            CachedUser snapshot = CachedUser.from(user);
+            redisTemplate.opsForValue().set(RedisKeys.user(loginId), snapshot, redisTtl, TimeUnit.MINUTES);
+            localCache.put(loginId, snapshot);
+        });
+        return loaded;
+    }
+
+    /**
+     * Drops a user from both tiers on every node. Call after any change to the user.
+     *
+     * @param user the changed user
+     */
+    public void evict(Users user) {
+        List<String> loginIds = new ArrayList<>();
+        if (user.getUsername() != null) loginIds.add(user.getUsername());
+        if (user.getEmail() != null) loginIds.add(user.getEmail());
+        if (loginIds.isEmpty()) {
+            return;
+        }
+
+        redisTemplate.delete(loginIds.stream().map(RedisKeys::user).toList());
+        localCache.invalidateAll(loginIds);
+        stringRedisTemplate.convertAndSend(EVICT_CHANNEL, String.join("\n", loginIds));
+    }
+
+    /**
+     * Receives evictions published by other nodes and drops them from the local tier.
+     */
+    @Override
+    public void onMessage(@NonNull Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        localCache.invalidateAll(List.of(body.split("\n")));
+    }
+}
@@ -2,10 +2,14 @@ package com.dhanesh.auth.portal.service;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import com.dhanesh.auth.portal.entity.Course;
 import com.dhanesh.auth.portal.entity.SavedCourse;
+import com.dhanesh.auth.portal.model.CourseChangedEvent;
 import com.dhanesh.auth.portal.repository.CourseRepository;
 import com.dhanesh.auth.portal.repository.SavedCourseRepository;
 
@@ -16,6 +20,7 @@ import lombok.RequiredArgsConstructor;
 public class SavedCourseService {
     private final SavedCourseRepository savedCourseRepository;
     private final CourseRepository courseRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     //add course to saved 
     public SavedCourse saveCourse(String userId, String courseId){
@@ -31,22 +36,25 @@ public class SavedCourseService {
                                 .savedAt(LocalDateTime.now())
                                 .build();
 
-        courseRepository.findById(courseId).ifPresent(c -> {
+        Optional<Course> updated = courseRepository.findById(courseId).map(c -> {
             c.setSaveCount(c.getSaveCount() + 1);
-            courseRepository.save(c);
+            return courseRepository.save(c);
         });
 
-        return savedCourseRepository.save(course);
+        SavedCourse saved = savedCourseRepository.save(course);
+        updated.ifPresent(c -> eventPublisher.publishEvent(new CourseChangedEvent(courseId, c)));
+        return saved;
     }
 
     //remove course from saved 
     public void removeSavedCourse(String userId, String courseId){
-        courseRepository.findById(courseId).ifPresent(c -> {
+        Optional<Course> updated = courseRepository.findById(courseId).map(c -> {
             c.setSaveCount(Math.max(0, c.getSaveCount() - 1));
-            courseRepository.save(c);
+            return courseRepository.save(c);
         });
 
         savedCourseRepository.deleteByUserIdAndCourseId(userId, courseId);
+        updated.ifPresent(c -> eventPublisher.publishEvent(new CourseChangedEvent(courseId, c)));
     }
 
     //check is course saved 
@@ -0,0 +1,202 @@
+package com.dhanesh.auth.portal.service;
+
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Small pool of connected, authenticated SMTP sessions.
+ * <p>
+ * {@link JavaMailSenderImpl} opens a new connection (TCP, STARTTLS, AUTH) for every
+ * send. Here sessions stay open and are reused for many messages, so the handshake
+ * is paid once per session instead of once per mail. A session is retired after
+ * {@code max-messages-per-session} messages or when it sat idle for too long.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SmtpSessionPool {
+
+    private final JavaMailSenderImpl mailSender;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.mail.smtp-pool.max-sessions}")
+    private int maxSessions;
+
+    @Value("${app.mail.smtp-pool.max-messages-per-session}")
+    private int maxMessagesPerSession;
+
+    @Value("${app.mail.smtp-pool.idle-timeout}")
+    private long idleTimeoutSeconds;
+
+    @Value("${app.mail.smtp-pool.borrow-timeout}")
+    private long borrowTimeoutSeconds;
+
+    private final BlockingDeque<SmtpSession> idle = new LinkedBlockingDeque<>();
+    private final AtomicInteger open = new AtomicInteger();
+    private Semaphore permits;
+
+    private Timer handshakeTimer;
+    private DistributionSummary messagesPerSession;
+
+    @PostConstruct
+    void init() {
+        this.permits = new Semaphore(maxSessions, true);
+        this.handshakeTimer = Timer.builder("auth.mail.smtp.handshake")
+            .description("Time spent connecting, negotiating TLS and authenticating a new SMTP session")
+            .register(meterRegistry);
+        this.messagesPerSession = DistributionSummary.builder("auth.mail.smtp.messages-per-session")
+            .description("Messages sent over an SMTP session before it was closed")
+            .register(meterRegistry);
+        Gauge.builder("auth.mail.smtp.sessions.open", open, AtomicInteger::get)
+            .description("SMTP sessions currently connected")
+            .register(meterRegistry);
+        Gauge.builder("auth.mail.smtp.sessions.idle", idle, BlockingDeque::size)
+            .description("Connected SMTP sessions waiting to be reused")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Takes a connected session out of the pool, opening a new one if none is idle.
+     * Must be handed back with {@link #release(SmtpSession)}.
+     *
+     * @throws MailSendException if no session frees up in time or connecting fails
+     */
+    public SmtpSession borrow() {
+        try {
+            if (!permits.tryAcquire(borrowTimeoutSeconds, TimeUnit.SECONDS)) {
+                throw new MailSendException("No SMTP session available");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new MailSendException("Interrupted while waiting for an SMTP session", ex);
+        }
+
+        try {
+            SmtpSession session;
+            while ((session = idle.pollFirst()) != null) {
+                if (!session.isExpired(idleTimeoutSeconds) && session.isConnected()) {
+                    return session;
+                }
+                close(session);
+            }
+            return connect();
+        } catch (RuntimeException ex) {
+            permits.release();
+            throw ex;
+        }
+    }
+
+    /**
+     * Hands a session back. Broken or used-up sessions are closed instead of reused.
+     */
+    public void release(SmtpSession session) {
+        try {
+            if (session.broken || session.sent >= maxMessagesPerSession) {
+                close(session);
+            } else {
+                session.lastUsed = System.nanoTime();
+                // LIFO, so the most recently used (warmest) session is reused first
+                idle.offerFirst(session);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        SmtpSession session;
+        while ((session = idle.pollFirst()) != null) {
+            close(session);
+        }
+    }
+
+    private SmtpSession connect() {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            String protocol = mailSender.getProtocol() != null ? mailSender.getProtocol() : "smtp";
+            Transport transport = mailSender.getSession().getTransport(protocol);
+            transport.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(), mailSender.getPassword());
+            open.incrementAndGet();
+            return new SmtpSession(transport);
+        } catch (MessagingException ex) {
+            throw new MailSendException("Could not connect to SMTP server", ex);
+        } finally {
+            sample.stop(handshakeTimer);
+        }
+    }
+
+    private void close(SmtpSession session) {
+        messagesPerSession.record(session.sent);
+        open.decrementAndGet();
+        try {
+            session.transport.close();
+        } catch (MessagingException ex) {
+            log.debug("Failed to close SMTP session cleanly", ex);
+        }
+    }
+
+    /**
+     * A connected SMTP transport plus the bookkeeping the pool needs.
+     */
+    public static class SmtpSession {
+
+        private final Transport transport;
+        private int sent = 0;
+        private long lastUsed = System.nanoTime();
+        private boolean broken = false;
+
+        private SmtpSession(Transport transport) {
+            this.transport = transport;
+        }
+
+        /**
+         * Sends one message over this session. A failure that leaves the connection
+         * unusable marks the session so the pool drops it on release.
+         */
+        public void send(MimeMessage message) throws MessagingException {
+            try {
+                message.saveChanges();
+                transport.sendMessage(message, message.getAllRecipients());
+                sent++;
+            } catch (MessagingException ex) {
+                if (!transport.isConnected()) {
+                    broken = true;
+                }
+                throw ex;
+            }
+        }
+
+        public boolean isBroken() {
+            return broken;
+        }
+
+        private boolean isConnected() {
+            return transport.isConnected();
+        }
+
+        private boolean isExpired(long idleTimeoutSeconds) {
+            return System.nanoTime() - lastUsed > TimeUnit.SECONDS.toNanos(idleTimeoutSeconds);
+        }
+    }
+}
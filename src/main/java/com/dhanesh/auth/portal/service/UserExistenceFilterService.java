@@ -0,0 +1,184 @@
+package com.dhanesh.auth.portal.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+
+import com.dhanesh.auth.portal.entity.Users;
+import com.dhanesh.auth.portal.util.BloomFilter;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory Bloom filter over all registered usernames and emails.
+ * <p>
+ * Used as a prefilter for signup existence checks: a negative answer is definite
+ * and lets the caller skip MongoDB, a positive answer must still be confirmed by
+ * the authoritative query. Built from the users collection at startup, updated on
+ * every new user (on all nodes, via Redis pub/sub) and rebuilt once enough users
+ * have been deleted.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserExistenceFilterService implements MessageListener {
+
+    private static final String ADD_CHANNEL = "authportal:user-filter:add";
+
+    private final MongoTemplate mongoTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    @Value("${app.signup-filter.expected-insertions}")
+    private long expectedInsertions;
+
+    @Value("${app.signup-filter.false-positive-rate}")
+    private double falsePositiveRate;
+
+    @Value("${app.signup-filter.rebuild-after-deletes}")
+    private long rebuildAfterDeletes;
+
+    private volatile BloomFilter filter;
+    private volatile BloomFilter building;
+    private volatile boolean ready = false;
+
+    private final AtomicLong deletesSinceBuild = new AtomicLong();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    @PostConstruct
+    void init() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(ADD_CHANNEL));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        CompletableFuture.runAsync(this::rebuild);
+    }
+
+    /**
+     * Returns false only if no user with this username exists.
+     */
+    public boolean mightContainUsername(String username) {
+        return !ready || filter.mightContain("u:" + username);
+    }
+
+    /**
+     * Returns false only if no user with this email exists.
+     */
+    public boolean mightContainEmail(String email) {
+        return !ready || filter.mightContain("e:" + email);
+    }
+
+    /**
+     * Registers a newly saved user on this node and on every other node.
+     */
+    public void add(Users user) {
+        addLocal(user.getUsername(), user.getEmail());
+        stringRedisTemplate.convertAndSend(ADD_CHANNEL, user.getUsername() + "\n" + user.getEmail());
+    }
+
+    /**
+     * Registers a batch of newly saved users with a single message to the other nodes.
+     */
+    public void addAll(Collection<Users> users) {
+        if (users.isEmpty()) {
+            return;
+        }
+        StringJoiner message = new StringJoiner("\n");
+        for (Users user : users) {
+            addLocal(user.getUsername(), user.getEmail());
+            message.add(user.getUsername()).add(user.getEmail());
+        }
+        stringRedisTemplate.convertAndSend(ADD_CHANNEL, message.toString());
+    }
+
+    /**
+     * Bloom filters cannot forget values, so deletes only leave stale positives behind.
+     * The filter is rebuilt once enough of them have accumulated.
+     */
+    public void recordDeletion() {
+        if (deletesSinceBuild.incrementAndGet() >= rebuildAfterDeletes) {
+            CompletableFuture.runAsync(this::rebuild);
+        }
+    }
+
+    /**
+     * Rebuilds the filter from the users collection and swaps it in.
+     */
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            BloomFilter next = new BloomFilter(expectedInsertions, falsePositiveRate);
+            building = next;
+
+            Query query = new Query();
+            query.fields().include("username").include("email");
+
+            long count = 0;
+            try (Stream<Users> users = mongoTemplate.stream(query, Users.class)) {
+                for (Users user : (Iterable<Users>) users::iterator) {
+                    put(next, user.getUsername(), user.getEmail());
+                    count++;
+                }
+            }
+
+            deletesSinceBuild.set(0);
+            filter = next;
+            ready = true;
+            log.info("User existence filter built with {} users", count);
+        } catch (RuntimeException ex) {
+            log.warn("Failed to build user existence filter, falling back to database checks", ex);
+        } finally {
+            building = null;
+            rebuilding.set(false);
+        }
+    }
+
+    @Override
+    public void onMessage(@NonNull Message message, byte[] pattern) {
+        // username/email pairs, one pair for a single signup and many for a bulk import
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\n");
+        for (int i = 0; i < parts.length; i += 2) {
+            addLocal(parts[i], i + 1 < parts.length ? parts[i + 1] : null);
+        }
+    }
+
+    private void addLocal(String username, String email) {
+        BloomFilter current = filter;
+        if (current != null) {
+            put(current, username, email);
+        }
+
+        // Also feed a rebuild in progress so the new filter does not miss this user
+        BloomFilter next = building;
+        if (next != null) {
+            put(next, username, email);
+        }
+    }
+
+    private static void put(BloomFilter target, String username, String email) {
+        if (username != null) target.put("u:" + username);
+        if (email != null) target.put("e:" + email);
+    }
+}
@@ -0,0 +1,418 @@
+package com.dhanesh.auth.portal.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import com.dhanesh.auth.portal.dto.admin.UserImportJob;
+import com.dhanesh.auth.portal.dto.admin.UserImportRow;
+import com.dhanesh.auth.portal.entity.Users;
+import com.dhanesh.auth.portal.model.AuthProvider;
+import com.dhanesh.auth.portal.model.ImportJobStatus;
+import com.dhanesh.auth.portal.security.password.BoundedPasswordEncoder;
+import com.dhanesh.auth.portal.service.Redis.RedisAuthService;
+import com.dhanesh.auth.portal.service.Redis.RedisImportJobService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteError;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bulk import of pre-verified local users, for onboarding a whole institution at once.
+ * <p>
+ * The upload is spooled to a temporary file and imported in the background, one job
+ * at a time, in chunks of {@code app.user-import.chunk-size} rows. For each chunk:
+ * rows are validated, usernames and emails already taken are found with a single
+ * query (plus one Redis call for those held by pending signups), passwords are hashed in parallel on a pool of their own (so the import does
+ * not compete for the bounded sign-in pool), and the users are written with one
+ * unordered bulk insert. Conflicts and invalid rows are reported per row and never
+ * fail the rest of the batch. Progress is tracked in {@link RedisImportJobService}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class UserImportService {
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    /** Spring Security's bcrypt prefix followed by a complete 60-character bcrypt hash */
+    private static final Pattern BCRYPT_HASH =
+        Pattern.compile("\\{bcrypt}\\$2[aby]\\$(0[4-9]|[12][0-9]|3[01])\\$[./A-Za-z0-9]{53}");
+
+    /** Upload formats: a CSV with a header line, or one JSON object per line */
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    private final MongoTemplate mongoTemplate;
+    private final BoundedPasswordEncoder passwordEncoder;
+    private final RedisImportJobService jobService;
+    private final RedisAuthService redisAuthService;
+    private final UserExistenceFilterService userExistenceFilter;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.user-import.chunk-size}")
+    private int chunkSize;
+
+    @Value("${app.user-import.hash-threads}")
+    private int hashThreads;
+
+    private ExecutorService jobExecutor;
+    private ExecutorService hashExecutor;
+
+    @PostConstruct
+    void init() {
+        this.jobExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-import");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // Leave half the cores to sign-ins by default
+        int threads = hashThreads > 0 ? hashThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.hashExecutor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "user-import-hash-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        jobExecutor.shutdownNow();
+        hashExecutor.shutdownNow();
+    }
+
+    /**
+     * Spools the upload and queues it for import.
+     *
+     * @param body   the uploaded users
+     * @param format the upload format
+     * @return the queued job
+     * @throws IOException if the upload cannot be spooled
+     */
+    public UserImportJob start(InputStream body, Format format) throws IOException {
+        Path spool = Files.createTempFile("user-import-", format == Format.CSV ? ".csv" : ".ndjson");
+        try {
+            Files.copy(body, spool, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ex) {
+            Files.deleteIfExists(spool);
+            throw ex;
+        }
+
+        String jobId = UUID.randomUUID().toString();
+        jobService.create(jobId);
+        jobExecutor.execute(() -> run(jobId, spool, format));
+
+        return jobService.get(jobId).orElseThrow();
+    }
+
+    public Optional<UserImportJob> status(String jobId) {
+        return jobService.poll(jobId);
+    }
+
+    private void run(String jobId, Path spool, Format format) {
+        jobService.markRunning(jobId);
+        try (BufferedReader reader = Files.newBufferedReader(spool, StandardCharsets.UTF_8)) {
+            Map<String, Integer> header = null;
+            List<ParsedRow> chunk = new ArrayList<>(chunkSize);
+
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == Format.CSV && header == null) {
+                    header = csvHeader(line);
+                    continue;
+                }
+
+                chunk.add(format == Format.CSV ? parseCsv(lineNumber, line, header) : parseJson(lineNumber, line));
+                if (chunk.size() == chunkSize) {
+                    importChunk(jobId, chunk);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(jobId, chunk);
+            }
+
+            jobService.finish(jobId, ImportJobStatus.COMPLETED, null);
+        } catch (Exception ex) {
+            log.error("User import {} failed", jobId, ex);
+            jobService.finish(jobId, ImportJobStatus.FAILED, ex.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(spool);
+            } catch (IOException ex) {
+                log.warn("Could not delete import spool file {}", spool, ex);
+            }
+        }
+    }
+
+    private void importChunk(String jobId, List<ParsedRow> chunk) {
+        List<String> errors = new ArrayList<>();
+        long invalid = 0;
+        long conflicts = 0;
+
+        // Validate, and catch duplicates within the chunk itself
+        List<ParsedRow> candidates = new ArrayList<>(chunk.size());
+        Set<String> usernames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        for (ParsedRow parsed : chunk) {
+            String problem = parsed.error() != null ? parsed.error() : validate(parsed.row());
+            if (problem != null) {
+                invalid++;
+                errors.add("line " + parsed.line() + ": " + problem);
+            } else if (!usernames.add(parsed.row().username()) | !emails.add(parsed.row().email())) {
+                conflicts++;
+                errors.add("line " + parsed.line() + ": username or email repeated within the import");
+            } else {
+                candidates.add(parsed);
+            }
+        }
+
+        // One query for every username and email of the chunk that is already taken
+        Set<String> takenUsernames = new HashSet<>();
+        Set<String> takenEmails = new HashSet<>();
+        if (!candidates.isEmpty()) {
+            Query query = new Query(new Criteria().orOperator(
+                Criteria.where("username").in(usernames),
+                Criteria.where("email").in(emails)
+            ));
+            query.fields().include("username").include("email");
+            for (Users existing : mongoTemplate.find(query, Users.class)) {
+                takenUsernames.add(existing.getUsername());
+                takenEmails.add(existing.getEmail());
+            }
+        }
+
+        // Usernames and emails held by a signup awaiting OTP verification are taken too
+        Set<String> reservedUsernames = new HashSet<>();
+        Set<String> pendingEmails = new HashSet<>();
+        if (!candidates.isEmpty()) {
+            reservedUsernames = redisAuthService.reservedUsernames(List.copyOf(usernames));
+            pendingEmails = redisAuthService.pendingSignupEmails(List.copyOf(emails));
+        }
+
+        List<ParsedRow> accepted = new ArrayList<>(candidates.size());
+        for (ParsedRow parsed : candidates) {
+            if (takenUsernames.contains(parsed.row().username())) {
+                conflicts++;
+                errors.add("line " + parsed.line() + ": username already taken");
+            } else if (takenEmails.contains(parsed.row().email())) {
+                conflicts++;
+                errors.add("line " + parsed.line() + ": email already in use");
+            } else if (reservedUsernames.contains(parsed.row().username())) {
+                conflicts++;
+                errors.add("line " + parsed.line() + ": username reserved by a pending signup");
+            } else if (pendingEmails.contains(parsed.row().email())) {
+                conflicts++;
+                errors.add("line " + parsed.line() + ": email has a pending signup");
+            } else {
+                accepted.add(parsed);
+            }
+        }
+
+        List<Users> users = hashAll(accepted);
+
+        // Unordered, so one failing document does not stop the others
+        Set<Integer> failed = new HashSet<>();
+        if (!users.isEmpty()) {
+            try {
+                mongoTemplate.bulkOps(BulkMode.UNORDERED, Users.class).insert(users).execute();
+            } catch (BulkOperationException ex) {
+                for (BulkWriteError error : ex.getErrors()) {
+                    failed.add(error.getIndex());
+                    long line = accepted.get(error.getIndex()).line();
+                    if (error.getCode() == DUPLICATE_KEY) {
+                        conflicts++;
+                        errors.add("line " + line + ": username or email already taken");
+                    } else {
+                        invalid++;
+                        errors.add("line " + line + ": " + error.getMessage());
+                    }
+                }
+            }
+        }
+
+        List<Users> inserted = new ArrayList<>(users.size() - failed.size());
+        for (int i = 0; i < users.size(); i++) {
+            if (!failed.contains(i)) {
+                inserted.add(users.get(i));
+            }
+        }
+        userExistenceFilter.addAll(inserted);
+
+        jobService.recordChunk(jobId, chunk.size(), inserted.size(), conflicts, invalid, errors);
+    }
+
+    /**
+     * Builds the users of a chunk, hashing their passwords in parallel. Passwords that
+     * are already {@code {bcrypt}} hashes are stored as they are. Everyone is imported
+     * with the USER role; admins are promoted individually.
+     */
+    private List<Users> hashAll(List<ParsedRow> rows) {
+        PasswordEncoder encoder = passwordEncoder.getDelegate();
+        Instant now = Instant.now();
+
+        List<CompletableFuture<Users>> futures = new ArrayList<>(rows.size());
+        for (ParsedRow parsed : rows) {
+            UserImportRow row = parsed.row();
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                Users user = new Users();
+                user.setUsername(row.username());
+                user.setEmail(row.email());
+                user.setPassword(isBcryptHash(row.password()) ? row.password() : encoder.encode(row.password()));
+                user.setAuthProvider(AuthProvider.LOCAL);
+                user.setVerified(true);
+                user.setRole("USER");
+                user.setCreatedAt(now);
+                return user;
+            }, hashExecutor));
+        }
+
+        List<Users> users = new ArrayList<>(futures.size());
+        for (CompletableFuture<Users> future : futures) {
+            users.add(future.join());
+        }
+        return users;
+    }
+
+    private static String validate(UserImportRow row) {
+        if (row.username() == null || row.username().isBlank()) {
+            return "username is required";
+        }
+        if (row.email() == null || !row.email().contains("@")) {
+            return "a valid email is required";
+        }
+        if (row.password() == null || row.password().isBlank()) {
+            return "password is required";
+        }
+        // A malformed hash would be stored as is and lock the account for good
+        if (row.password().startsWith("{bcrypt}") && !isBcryptHash(row.password())) {
+            return "password starts with {bcrypt} but is not a valid bcrypt hash";
+        }
+        if (row.role() != null && !row.role().isBlank() && !"USER".equalsIgnoreCase(row.role())) {
+            return "role " + row.role() + " cannot be granted by import, only USER";
+        }
+        return null;
+    }
+
+    private static boolean isBcryptHash(String password) {
+        return BCRYPT_HASH.matcher(password).matches();
+    }
+
+    private ParsedRow parseJson(long line, String json) {
+        try {
+            return new ParsedRow(line, objectMapper.readValue(json, UserImportRow.class), null);
+        } catch (JsonProcessingException ex) {
+            return new ParsedRow(line, null, "not a valid JSON object");
+        }
+    }
+
+    private static Map<String, Integer> csvHeader(String line) {
+        List<String> columns = splitCsv(line);
+        Map<String, Integer> header = new HashMap<>();
+        for (int i = 0; i < columns.size(); i++) {
+            header.put(columns.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : List.of("username", "email", "password")) {
+            if (!header.containsKey(required)) {
+                throw new IllegalArgumentException("CSV header is missing the " + required + " column");
+            }
+        }
+        return header;
+    }
+
+    private static ParsedRow parseCsv(long line, String text, Map<String, Integer> header) {
+        List<String> values = splitCsv(text);
+        return new ParsedRow(line, new UserImportRow(
+            column(values, header.get("username")),
+            column(values, header.get("email")),
+            column(values, header.get("password")),
+            column(values, header.get("role"))
+        ), null);
+    }
+
+    private static String column(List<String> values, Integer index) {
+        if (index == null || index >= values.size()) {
+            return null;
+        }
+        String value = values.get(index);
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Splits one CSV line, honoring double-quoted fields with {@code ""} escapes.
+     * Quoted fields spanning several lines are not supported.
+     */
+    private static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    private record ParsedRow(long line, UserImportRow row, String error) {}
+}
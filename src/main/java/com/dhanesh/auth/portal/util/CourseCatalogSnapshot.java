@@ -0,0 +1,269 @@
+package com.dhanesh.auth.portal.util;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+import com.dhanesh.auth.portal.entity.Course;
+
+/**
+ * Immutable, column-oriented copy of the fields the catalog is filtered and ranked by.
+ * <p>
+ * Course {@code i} is row {@code i} of every column: numbers are primitive arrays,
+ * platform, difficulty and duration are dictionary-encoded as ints ({@code -1} when
+ * absent), and tags are dictionary codes in one shared array with per-course offsets.
+ * Sets of tags to test against are bitsets over the tag dictionary, so matching a
+ * course's tags is a bit test per tag. Scanning rows allocates nothing; callers load
+ * full documents only for the rows they return.
+ */
+public final class CourseCatalogSnapshot {
+
+    /** Epoch millis standing for a missing last update, before any real one */
+    public static final long NEVER_UPDATED = Long.MIN_VALUE;
+
+    private final String[] ids;
+    private final double[] rating;
+    private final long[] saveCount;
+    private final long[] shareCount;
+    private final long[] lastUpdated;
+
+    private final Dictionary platforms;
+    private final Dictionary difficulties;
+    private final Dictionary durations;
+    private final Dictionary tags;
+    private final int[] platform;
+    private final int[] difficulty;
+    private final int[] duration;
+
+    // Tags of course i are tagCodes[tagOffsets[i] .. tagOffsets[i + 1])
+    private final int[] tagOffsets;
+    private final int[] tagCodes;
+
+    private final long builtAt;
+
+    private CourseCatalogSnapshot(List<Course> courses) {
+        int n = courses.size();
+        this.ids = new String[n];
+        this.rating = new double[n];
+        this.saveCount = new long[n];
+        this.shareCount = new long[n];
+        this.lastUpdated = new long[n];
+        this.platform = new int[n];
+        this.difficulty = new int[n];
+        this.duration = new int[n];
+        this.tagOffsets = new int[n + 1];
+        this.platforms = new Dictionary();
+        this.difficulties = new Dictionary();
+        this.durations = new Dictionary();
+        this.tags = new Dictionary();
+
+        int tagCount = 0;
+        for (Course course : courses) {
+            tagCount += course.getTags() == null ? 0 : course.getTags().size();
+        }
+        this.tagCodes = new int[tagCount];
+
+        int nextTag = 0;
+        for (int i = 0; i < n; i++) {
+            Course course = courses.get(i);
+            ids[i] = course.getId();
+            rating[i] = course.getRating();
+            saveCount[i] = course.getSaveCount();
+            shareCount[i] = course.getShareCount();
+            lastUpdated[i] = epochMillis(course.getLastUpdated());
+            platform[i] = platforms.encode(course.getPlatform());
+            difficulty[i] = difficulties.encode(course.getDifficultyLevel());
+            duration[i] = durations.encode(course.getDuration());
+
+            tagOffsets[i] = nextTag;
+            if (course.getTags() != null) {
+                for (String tag : course.getTags()) {
+                    tagCodes[nextTag++] = tags.encode(tag);
+                }
+            }
+        }
+        tagOffsets[n] = nextTag;
+        this.builtAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Builds a snapshot, in the given order, from courses holding at least the id,
+     * tags, platform, difficultyLevel, duration, rating, saveCount, shareCount and
+     * lastUpdated fields.
+     */
+    public static CourseCatalogSnapshot of(List<Course> courses) {
+        return new CourseCatalogSnapshot(courses);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    /** When this snapshot was built, in epoch millis */
+    public long builtAt() {
+        return builtAt;
+    }
+
+    public String id(int row) {
+        return ids[row];
+    }
+
+    public double rating(int row) {
+        return rating[row];
+    }
+
+    public long saveCount(int row) {
+        return saveCount[row];
+    }
+
+    public long shareCount(int row) {
+        return shareCount[row];
+    }
+
+    /** Last update in epoch millis, {@link #NEVER_UPDATED} when unknown */
+    public long lastUpdated(int row) {
+        return lastUpdated[row];
+    }
+
+    public int platform(int row) {
+        return platform[row];
+    }
+
+    public int difficulty(int row) {
+        return difficulty[row];
+    }
+
+    /** Which platform codes equal the value ignoring case, indexed by code */
+    public boolean[] platformsEqualIgnoreCase(String value) {
+        return platforms.equalIgnoreCase(value);
+    }
+
+    /** Which difficulty codes equal the value ignoring case, indexed by code */
+    public boolean[] difficultiesEqualIgnoreCase(String value) {
+        return difficulties.equalIgnoreCase(value);
+    }
+
+    /** The tags as a bitset over the tag dictionary; unknown tags are left out */
+    public long[] tagSet(Collection<String> values) {
+        long[] bits = new long[(tags.size() + 63) >>> 6];
+        if (values != null) {
+            for (String value : values) {
+                int code = tags.code(value);
+                if (code >= 0) {
+                    bits[code >>> 6] |= 1L << code;
+                }
+            }
+        }
+        return bits;
+    }
+
+    /** How many of the course's tags are in the set, repeated tags counted each time */
+    public int countTags(int row, long[] tagSet) {
+        int count = 0;
+        for (int t = tagOffsets[row]; t < tagOffsets[row + 1]; t++) {
+            int code = tagCodes[t];
+            if ((tagSet[code >>> 6] & (1L << code)) != 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Rows matching a filter with the semantics of the Mongo criteria it replaces:
+     * any of the tags, any of the platforms, the exact difficulty and duration.
+     * Empty or {@code null} arguments do not filter.
+     */
+    public IntPredicate filter(List<String> anyTags, List<String> anyPlatforms, String difficultyLevel, String durationValue) {
+        IntPredicate filter = row -> true;
+        if (anyTags != null && !anyTags.isEmpty()) {
+            long[] wanted = tagSet(anyTags);
+            filter = filter.and(row -> countTags(row, wanted) > 0);
+        }
+        if (anyPlatforms != null && !anyPlatforms.isEmpty()) {
+            boolean[] wanted = new boolean[platforms.size()];
+            for (String value : anyPlatforms) {
+                int code = platforms.code(value);
+                if (code >= 0) {
+                    wanted[code] = true;
+                }
+            }
+            filter = filter.and(row -> platform[row] >= 0 && wanted[platform[row]]);
+        }
+        if (difficultyLevel != null) {
+            int wanted = difficulties.code(difficultyLevel);
+            filter = filter.and(row -> wanted >= 0 && difficulty[row] == wanted);
+        }
+        if (durationValue != null && !durationValue.isBlank()) {
+            int wanted = durations.code(durationValue);
+            filter = filter.and(row -> wanted >= 0 && duration[row] == wanted);
+        }
+        return filter;
+    }
+
+    /** Number of courses per platform, courses without one left out */
+    public Map<String, Long> platformCounts() {
+        long[] counts = new long[platforms.size()];
+        for (int code : platform) {
+            if (code >= 0) {
+                counts[code]++;
+            }
+        }
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (int code = 0; code < counts.length; code++) {
+            result.put(platforms.value(code), counts[code]);
+        }
+        return result;
+    }
+
+    /** Epoch millis of a stored timestamp, read in the zone Spring Data converts with */
+    public static long epochMillis(LocalDateTime time) {
+        return time == null ? NEVER_UPDATED : time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Distinct values of a column, each with a dense int code in order of first use.
+     */
+    private static final class Dictionary {
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        private int encode(String value) {
+            if (value == null) {
+                return -1;
+            }
+            return codes.computeIfAbsent(value, key -> {
+                values.add(key);
+                return values.size() - 1;
+            });
+        }
+
+        private int code(String value) {
+            return value == null ? -1 : codes.getOrDefault(value, -1);
+        }
+
+        private String value(int code) {
+            return values.get(code);
+        }
+
+        private int size() {
+            return values.size();
+        }
+
+        private boolean[] equalIgnoreCase(String value) {
+            boolean[] matches = new boolean[values.size()];
+            if (value != null) {
+                for (int code = 0; code < matches.length; code++) {
+                    matches[code] = values.get(code).equalsIgnoreCase(value);
+                }
+            }
+            return matches;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.dhanesh.auth.portal.util;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Keeps an in-memory index correct while it is rebuilt from its source.
+ * <p>
+ * A full rebuild reads a snapshot that may predate changes applied to the index
+ * while it runs, and then replaces the index, losing them. Callers report every
+ * change through {@link #changed(Object)} before applying it; the keys changed
+ * during a rebuild are handed back once it is done, to be applied again from the
+ * current source. Only one rebuild runs at a time, concurrent requests are skipped.
+ *
+ * @param <K> the key of a changed entry (e.g. a course id)
+ */
+public class RebuildReplay<K> {
+
+    private final Queue<K> changedDuringRebuild = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    /**
+     * Runs the rebuild unless one is already running, then replays the keys changed
+     * while it ran.
+     *
+     * @param rebuild reads the source and replaces the index
+     * @param replay  re-applies one changed key from the current source
+     * @return false if the rebuild was skipped
+     */
+    public boolean run(Runnable rebuild, Consumer<K> replay) {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            changedDuringRebuild.clear();
+            rebuild.run();
+        } finally {
+            rebuilding.set(false);
+        }
+
+        // The new index may predate these changes, apply them again
+        K key;
+        while ((key = changedDuringRebuild.poll()) != null) {
+            replay.accept(key);
+        }
+        return true;
+    }
+
+    /**
+     * Records a change about to be applied to the index.
+     */
+    public void changed(K key) {
+        if (rebuilding.get()) {
+            changedDuringRebuild.add(key);
+        }
+    }
+}
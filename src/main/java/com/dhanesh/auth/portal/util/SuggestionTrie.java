@@ -0,0 +1,315 @@
+package com.dhanesh.auth.portal.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Weighted prefix index for typeahead suggestions.
+ * <p>
+ * Every suggestion text is inserted once for each word it contains, so "spring" also
+ * completes to "java spring boot". Each trie node keeps its top suggestions already
+ * sorted, which makes a lookup a walk down the prefix plus a copy, independent of
+ * how many suggestions exist. Suggestions are contributed by owners (e.g. courses):
+ * the same text from several owners is one suggestion weighing the sum of their
+ * weights. Changing an owner only re-sorts the nodes on the paths of its texts.
+ * <p>
+ * Paths are cut at {@code maxDepth} characters to bound memory; longer prefixes are
+ * answered by filtering every suggestion ending its path at that depth, which only
+ * costs more than a copy for the rare prefix shared by many suggestions. Thread-safe:
+ * updates take a write lock, lookups a read lock.
+ */
+public class SuggestionTrie {
+
+    /** A text an owner contributes, with the kind of text it is (title, tag, ...) */
+    public record Item(String type, String text) {}
+
+    /** An owner and everything it contributes, for a full rebuild */
+    public record Source(String ownerId, Collection<Item> items, long weight) {}
+
+    public record Suggestion(String type, String text, long weight) {}
+
+    private static final Comparator<Term> BY_WEIGHT =
+        Comparator.comparingLong((Term term) -> term.weight).reversed()
+            .thenComparing(term -> term.normalized);
+
+    private final int maxResults;
+    private final int maxDepth;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Node root = new Node();
+    private Map<String, Term> terms = new HashMap<>();
+    private Map<String, Set<Term>> termsByOwner = new HashMap<>();
+
+    public SuggestionTrie(int maxResults, int maxDepth) {
+        this.maxResults = maxResults;
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * Replaces everything an owner contributes.
+     */
+    public void put(String ownerId, Collection<Item> items, long weight) {
+        lock.writeLock().lock();
+        try {
+            Set<Term> touched = new HashSet<>();
+            detachOwner(ownerId, touched);
+            attachOwner(ownerId, items, weight, touched);
+            touched.forEach(this::refresh);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes everything an owner contributes.
+     */
+    public void remove(String ownerId) {
+        lock.writeLock().lock();
+        try {
+            Set<Term> touched = new HashSet<>();
+            detachOwner(ownerId, touched);
+            touched.forEach(this::refresh);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the whole index. The new index is built without holding the lock,
+     * lookups keep using the old one until it is swapped in.
+     */
+    public void rebuild(Iterable<Source> sources) {
+        SuggestionTrie next = new SuggestionTrie(maxResults, maxDepth);
+        for (Source source : sources) {
+            next.attachOwner(source.ownerId(), source.items(), source.weight(), new HashSet<>());
+        }
+        next.sortAll(next.root);
+
+        lock.writeLock().lock();
+        try {
+            this.root = next.root;
+            this.terms = next.terms;
+            this.termsByOwner = next.termsByOwner;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the heaviest suggestions containing a word that starts with the prefix.
+     */
+    public List<Suggestion> top(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            int depth = Math.min(normalized.length(), maxDepth);
+            for (int i = 0; i < depth && node != null; i++) {
+                node = node.children.get(normalized.charAt(i));
+            }
+            if (node == null) {
+                return List.of();
+            }
+
+            if (normalized.length() > maxDepth) {
+                // The node is a leaf: its terminals are all suggestions sharing the first maxDepth characters
+                return node.terminals.stream()
+                    .distinct()
+                    .filter(term -> containsWordPrefix(term.normalized, normalized))
+                    .sorted(BY_WEIGHT)
+                    .limit(limit)
+                    .map(term -> new Suggestion(term.type, term.text, term.weight))
+                    .toList();
+            }
+
+            List<Suggestion> result = new ArrayList<>(Math.min(limit, node.top.length));
+            for (Term term : node.top) {
+                if (result.size() == limit) {
+                    break;
+                }
+                result.add(new Suggestion(term.type, term.text, term.weight));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return terms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void attachOwner(String ownerId, Collection<Item> items, long weight, Set<Term> touched) {
+        Set<Term> owned = new HashSet<>();
+        for (Item item : items) {
+            String normalized = normalize(item.text());
+            if (normalized.isEmpty()) {
+                continue;
+            }
+            Term term = terms.computeIfAbsent(item.type() + '\u0000' + normalized,
+                key -> new Term(key, item.type(), item.text().trim(), normalized));
+            if (!owned.add(term)) {
+                continue;
+            }
+            if (term.contributors.isEmpty()) {
+                forEachPath(term, path -> path.get(path.size() - 1).terminals.add(term), true);
+            }
+            term.contributors.put(ownerId, weight);
+            term.weight += weight;
+            touched.add(term);
+        }
+        if (!owned.isEmpty()) {
+            termsByOwner.put(ownerId, owned);
+        }
+    }
+
+    private void detachOwner(String ownerId, Set<Term> touched) {
+        Set<Term> owned = termsByOwner.remove(ownerId);
+        if (owned == null) {
+            return;
+        }
+        for (Term term : owned) {
+            Long weight = term.contributors.remove(ownerId);
+            if (weight != null) {
+                term.weight -= weight;
+            }
+            if (term.contributors.isEmpty()) {
+                terms.remove(term.key);
+                forEachPath(term, path -> path.get(path.size() - 1).terminals.remove(term), false);
+            }
+            touched.add(term);
+        }
+    }
+
+    /**
+     * Re-sorts the nodes on every path of a term, deepest first, and prunes nodes
+     * left without suggestions.
+     */
+    private void refresh(Term term) {
+        forEachPath(term, path -> {
+            for (int i = path.size() - 1; i >= 0; i--) {
+                Node node = path.get(i);
+                sort(node);
+                if (i > 0 && node.terminals.isEmpty() && node.children.isEmpty()) {
+                    path.get(i - 1).children.remove(node.key);
+                }
+            }
+        }, false);
+    }
+
+    private void forEachPath(Term term, Consumer<List<Node>> action, boolean create) {
+        String text = term.normalized;
+        for (int start = 0; start < text.length(); start++) {
+            if (!isWordStart(text, start)) {
+                continue;
+            }
+            List<Node> path = new ArrayList<>();
+            Node node = root;
+            path.add(node);
+            int end = Math.min(text.length(), start + maxDepth);
+            for (int i = start; i < end && node != null; i++) {
+                char c = text.charAt(i);
+                Node child = node.children.get(c);
+                if (child == null && create) {
+                    child = new Node(c);
+                    node.children.put(c, child);
+                }
+                node = child;
+                if (node != null) {
+                    path.add(node);
+                }
+            }
+            if (node != null) {
+                action.accept(path);
+            }
+        }
+    }
+
+    private void sortAll(Node node) {
+        for (Node child : node.children.values()) {
+            sortAll(child);
+        }
+        sort(node);
+    }
+
+    private void sort(Node node) {
+        Set<Term> candidates = new LinkedHashSet<>(node.terminals);
+        for (Node child : node.children.values()) {
+            for (Term term : child.top) {
+                candidates.add(term);
+            }
+        }
+        node.top = candidates.stream()
+            .sorted(BY_WEIGHT)
+            .limit(maxResults)
+            .toArray(Term[]::new);
+    }
+
+    private static boolean containsWordPrefix(String text, String prefix) {
+        for (int start = text.indexOf(prefix); start >= 0; start = text.indexOf(prefix, start + 1)) {
+            if (isWordStart(text, start)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isWordStart(String text, int index) {
+        return Character.isLetterOrDigit(text.charAt(index))
+            && (index == 0 || !Character.isLetterOrDigit(text.charAt(index - 1)));
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Node {
+        private final char key;
+        private final Map<Character, Node> children = new HashMap<>(4);
+        private final List<Term> terminals = new ArrayList<>(1);
+        private Term[] top = new Term[0];
+
+        private Node() {
+            this('\0');
+        }
+
+        private Node(char key) {
+            this.key = key;
+        }
+    }
+
+    private static final class Term {
+        private final String key;
+        private final String type;
+        private final String text;
+        private final String normalized;
+        private final Map<String, Long> contributors = new HashMap<>(2);
+        private long weight;
+
+        private Term(String key, String type, String text, String normalized) {
+            this.key = key;
+            this.type = type;
+            this.text = text;
+            this.normalized = normalized;
+        }
+    }
+}
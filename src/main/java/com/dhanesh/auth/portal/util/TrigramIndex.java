@@ -0,0 +1,310 @@
+package com.dhanesh.auth.portal.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Character-trigram index over a vocabulary of words, for typo-tolerant lookups.
+ * <p>
+ * Each distinct word is posted under the trigrams of its padded form, in a posting list
+ * per word length. A lookup only reads the lists of the query's trigrams for lengths
+ * within the allowed distance, only verifies words sharing enough trigrams with the
+ * query (a single edit changes at most four of them, counting transpositions), and
+ * stops computing the optimal string alignment distance once it exceeds the limit.
+ * Its cost follows those posting lists, not the number of owners indexed.
+ * <p>
+ * When the query is so short for its distance that a match may share no trigram at
+ * all (e.g. "ab" and "ba"), the lookup instead verifies every word of a length within
+ * the distance. Callers keep lookups on the fast path by allowing fewer edits for
+ * short words.
+ * <p>
+ * Words are contributed by owners (e.g. courses) and reference counted, so changing one
+ * owner only touches its own words. Thread-safe: updates take a write lock, lookups a
+ * read lock.
+ */
+public class TrigramIndex {
+
+    /** An owner and the texts it contributes, for a full rebuild */
+    public record Source(String ownerId, Collection<String> texts) {}
+
+    /**
+     * A vocabulary word within the allowed distance of the query.
+     *
+     * @param similarity 1 for an exact match, down to 0 as edits approach the word length
+     * @param frequency  how many owners use the word
+     */
+    public record Match(String word, int distance, double similarity, int frequency) {}
+
+    private static final Comparator<Match> BEST_FIRST =
+        Comparator.comparingDouble(Match::similarity).reversed()
+            .thenComparing(Comparator.comparingInt(Match::frequency).reversed())
+            .thenComparing(Match::word);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Map<String, Word> words = new HashMap<>();
+    private Map<String, List<Word>> postings = new HashMap<>();
+    private Map<String, Word[]> wordsByOwner = new HashMap<>();
+
+    /**
+     * Replaces the words an owner contributes.
+     */
+    public void put(String ownerId, Collection<String> texts) {
+        lock.writeLock().lock();
+        try {
+            release(ownerId);
+            attach(ownerId, texts);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the words an owner contributes.
+     */
+    public void remove(String ownerId) {
+        lock.writeLock().lock();
+        try {
+            release(ownerId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the whole index. The new index is built without holding the lock,
+     * lookups keep using the old one until it is swapped in.
+     */
+    public void rebuild(Iterable<Source> sources) {
+        TrigramIndex next = new TrigramIndex();
+        for (Source source : sources) {
+            next.attach(source.ownerId(), source.texts());
+        }
+
+        lock.writeLock().lock();
+        try {
+            this.words = next.words;
+            this.postings = next.postings;
+            this.wordsByOwner = next.wordsByOwner;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds vocabulary words within {@code maxDistance} edits of a word, best first.
+     */
+    public List<Match> lookup(String query, int maxDistance, int limit) {
+        String term = query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
+        if (term.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<String> grams = trigrams(term);
+            int required = grams.size() - 4 * maxDistance;
+            int minLength = Math.max(1, term.length() - maxDistance);
+            int maxLength = term.length() + maxDistance;
+
+            Collection<Word> candidates;
+            if (required > 0) {
+                // Count shared trigrams per candidate, only along the query's posting lists
+                Map<Word, Integer> shared = new HashMap<>();
+                for (String gram : grams) {
+                    for (int length = minLength; length <= maxLength; length++) {
+                        List<Word> posted = postings.get(postingKey(gram, length));
+                        if (posted != null) {
+                            for (Word word : posted) {
+                                shared.merge(word, 1, Integer::sum);
+                            }
+                        }
+                    }
+                }
+                shared.values().removeIf(count -> count < required);
+                candidates = shared.keySet();
+            } else {
+                // A match may share no trigram, only the length bound is safe
+                candidates = new ArrayList<>();
+                for (Word word : words.values()) {
+                    if (word.text.length() >= minLength && word.text.length() <= maxLength) {
+                        candidates.add(word);
+                    }
+                }
+            }
+
+            List<Match> matches = new ArrayList<>();
+            for (Word word : candidates) {
+                int distance = distance(term, word.text, maxDistance);
+                if (distance <= maxDistance) {
+                    double similarity = 1.0 - (double) distance / Math.max(term.length(), word.text.length());
+                    matches.add(new Match(word.text, distance, similarity, word.owners));
+                }
+            }
+
+            matches.sort(BEST_FIRST);
+            return matches.size() > limit ? matches.subList(0, limit) : matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean contains(String word) {
+        lock.readLock().lock();
+        try {
+            return words.containsKey(word.toLowerCase(Locale.ROOT));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return words.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Splits text into lowercase words of letters and digits.
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                current.append(Character.toLowerCase(c));
+            } else if (!current.isEmpty()) {
+                tokens.add(current.toString());
+                current.setLength(0);
+            }
+        }
+        if (!current.isEmpty()) {
+            tokens.add(current.toString());
+        }
+        return tokens;
+    }
+
+    private void attach(String ownerId, Collection<String> texts) {
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String text : texts) {
+            tokens.addAll(tokenize(text));
+        }
+        if (tokens.isEmpty()) {
+            return;
+        }
+
+        Word[] owned = new Word[tokens.size()];
+        int i = 0;
+        for (String token : tokens) {
+            Word word = words.get(token);
+            if (word == null) {
+                word = new Word(token);
+                words.put(token, word);
+                for (String gram : trigrams(token)) {
+                    postings.computeIfAbsent(postingKey(gram, token.length()), key -> new ArrayList<>()).add(word);
+                }
+            }
+            word.owners++;
+            owned[i++] = word;
+        }
+        wordsByOwner.put(ownerId, owned);
+    }
+
+    private void release(String ownerId) {
+        Word[] owned = wordsByOwner.remove(ownerId);
+        if (owned == null) {
+            return;
+        }
+        for (Word word : owned) {
+            if (--word.owners > 0) {
+                continue;
+            }
+            words.remove(word.text);
+            for (String gram : trigrams(word.text)) {
+                String key = postingKey(gram, word.text.length());
+                List<Word> posted = postings.get(key);
+                if (posted != null) {
+                    posted.remove(word);
+                    if (posted.isEmpty()) {
+                        postings.remove(key);
+                    }
+                }
+            }
+        }
+    }
+
+    private static String postingKey(String gram, int length) {
+        return gram + (char) length;
+    }
+
+    // Padded on both ends so that short words and word edges get trigrams too
+    private static List<String> trigrams(String word) {
+        String padded = "  " + word + "  ";
+        List<String> grams = new ArrayList<>(padded.length() - 2);
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    /**
+     * Optimal string alignment distance (edits plus adjacent transpositions),
+     * giving up with {@code max + 1} as soon as it must exceed {@code max}.
+     */
+    static int distance(String a, String b, int max) {
+        int n = a.length();
+        int m = b.length();
+        int[] previous2 = new int[m + 1];
+        int[] previous = new int[m + 1];
+        int[] current = new int[m + 1];
+        for (int j = 0; j <= m; j++) {
+            previous[j] = j;
+        }
+
+        for (int i = 1; i <= n; i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= m; j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, previous2[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return Math.min(previous[m], max + 1);
+    }
+
+    private static final class Word {
+        private final String text;
+        private int owners;
+
+        private Word(String text) {
+            this.text = text;
+        }
+    }
+}
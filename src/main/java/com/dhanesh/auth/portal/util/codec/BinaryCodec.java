@@ -0,0 +1,28 @@
+package com.dhanesh.auth.portal.util.codec;
+
+/**
+ * Binary encoding of one value type, stored as a MessagePack array of its fields.
+ * <p>
+ * Implementations bump {@link #version()} whenever the field list changes and keep
+ * reading every older version, so values written before a deploy stay readable.
+ * Fields are only ever appended.
+ *
+ * @param <T> the value type
+ */
+public interface BinaryCodec<T> {
+
+    /**
+     * Version written with every value.
+     */
+    int version();
+
+    /**
+     * Writes the fields of the value, starting with the array header.
+     */
+    void write(T value, MsgPack.Writer out);
+
+    /**
+     * Reads a value written by the given codec version.
+     */
+    T read(int version, MsgPack.Reader in);
+}
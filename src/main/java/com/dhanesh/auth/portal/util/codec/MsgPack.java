@@ -0,0 +1,141 @@
+package com.dhanesh.auth.portal.util.codec;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Minimal MessagePack writer and reader covering what the Redis value codecs need:
+ * arrays, strings, small non-negative integers and nil.
+ * <p>
+ * MessagePack is used (rather than an ad-hoc layout) so Redis Lua scripts can
+ * decode the same values with the built-in {@code cmsgpack} library.
+ */
+public final class MsgPack {
+
+    private MsgPack() {}
+
+    public static final class Writer {
+
+        private final ByteArrayOutputStream out;
+
+        public Writer(int initialCapacity) {
+            this.out = new ByteArrayOutputStream(initialCapacity);
+        }
+
+        public Writer rawByte(int value) {
+            out.write(value);
+            return this;
+        }
+
+        public Writer arrayHeader(int size) {
+            if (size < 16) {
+                out.write(0x90 | size);
+            } else {
+                out.write(0xdc);
+                writeShort(size);
+            }
+            return this;
+        }
+
+        public Writer string(String value) {
+            if (value == null) {
+                out.write(0xc0);
+                return this;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            int length = bytes.length;
+            if (length < 32) {
+                out.write(0xa0 | length);
+            } else if (length < 0x100) {
+                out.write(0xd9);
+                out.write(length);
+            } else if (length < 0x10000) {
+                out.write(0xda);
+                writeShort(length);
+            } else {
+                out.write(0xdb);
+                writeShort(length >>> 16);
+                writeShort(length);
+            }
+            out.write(bytes, 0, length);
+            return this;
+        }
+
+        public byte[] toByteArray() {
+            return out.toByteArray();
+        }
+
+        private void writeShort(int value) {
+            out.write((value >>> 8) & 0xff);
+            out.write(value & 0xff);
+        }
+    }
+
+    public static final class Reader {
+
+        private final byte[] data;
+        private int position;
+
+        public Reader(byte[] data, int offset) {
+            this.data = data;
+            this.position = offset;
+        }
+
+        public int rawByte() {
+            return data[position++] & 0xff;
+        }
+
+        public int arrayHeader() {
+            int type = rawByte();
+            if ((type & 0xf0) == 0x90) {
+                return type & 0x0f;
+            }
+            if (type == 0xdc) {
+                return readShort();
+            }
+            throw new IllegalArgumentException("Expected MessagePack array, found 0x" + Integer.toHexString(type));
+        }
+
+        public String string() {
+            int type = rawByte();
+            int length;
+            if ((type & 0xe0) == 0xa0) {
+                length = type & 0x1f;
+            } else if (type == 0xd9) {
+                length = rawByte();
+            } else if (type == 0xda) {
+                length = readShort();
+            } else if (type == 0xdb) {
+                length = (readShort() << 16) | readShort();
+            } else if (type == 0xc0) {
+                return null;
+            } else {
+                throw new IllegalArgumentException("Expected MessagePack string, found 0x" + Integer.toHexString(type));
+            }
+            String value = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        /**
+         * Skips one value, so older readers can ignore fields appended by newer writers.
+         */
+        public void skip() {
+            int type = data[position] & 0xff;
+            if ((type & 0xf0) == 0x90 || type == 0xdc) {
+                int size = arrayHeader();
+                for (int i = 0; i < size; i++) {
+                    skip();
+                }
+            } else if (type <= 0x7f || type == 0xc0 || type == 0xc2 || type == 0xc3 || type >= 0xe0) {
+                position++;
+            } else {
+                string();
+            }
+        }
+
+        private int readShort() {
+            return (rawByte() << 8) | rawByte();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.dhanesh.auth.portal.util.codec;
+
+import com.dhanesh.auth.portal.model.OtpData;
+import com.dhanesh.auth.portal.model.OtpPurpose;
+
+/**
+ * v1 layout: {@code [otp, purpose name]}. Read by {@code redis/otp-verify.lua}, keep both in sync.
+ */
+public class OtpDataCodec implements BinaryCodec<OtpData> {
+
+    @Override
+    public int version() {
+        return 1;
+    }
+
+    @Override
+    public void write(OtpData value, MsgPack.Writer out) {
+        out.arrayHeader(2)
+            .string(value.otp())
+            .string(value.purpose() != null ? value.purpose().name() : null);
+    }
+
+    @Override
+    public OtpData read(int version, MsgPack.Reader in) {
+        int fields = in.arrayHeader();
+        String otp = in.string();
+        String purpose = in.string();
+        for (int i = 2; i < fields; i++) {
+            in.skip();
+        }
+        return new OtpData(otp, purpose != null ? OtpPurpose.valueOf(purpose) : null);
+    }
+}
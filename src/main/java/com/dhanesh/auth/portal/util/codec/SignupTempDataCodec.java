@@ -0,0 +1,34 @@
+package com.dhanesh.auth.portal.util.codec;
+
+import com.dhanesh.auth.portal.dto.auth.SignupTempData;
+
+/**
+ * v1 layout: {@code [username, email, encodedPassword]}.
+ */
+public class SignupTempDataCodec implements BinaryCodec<SignupTempData> {
+
+    @Override
+    public int version() {
+        return 1;
+    }
+
+    @Override
+    public void write(SignupTempData value, MsgPack.Writer out) {
+        out.arrayHeader(3)
+            .string(value.username())
+            .string(value.email())
+            .string(value.encodedPassword());
+    }
+
+    @Override
+    public SignupTempData read(int version, MsgPack.Reader in) {
+        int fields = in.arrayHeader();
+        String username = in.string();
+        String email = in.string();
+        String encodedPassword = in.string();
+        for (int i = 3; i < fields; i++) {
+            in.skip();
+        }
+        return new SignupTempData(username, email, encodedPassword);
+    }
+}
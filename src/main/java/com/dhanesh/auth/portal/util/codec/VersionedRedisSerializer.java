@@ -0,0 +1,71 @@
+package com.dhanesh.auth.portal.util.codec;
+
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import com.dhanesh.auth.portal.model.RedisValueFormat;
+
+/**
+ * Redis value serializer for one namespace that can write either the compact
+ * binary form or the legacy JSON form, and always reads both.
+ * <p>
+ * Binary values are {@code 0xC1, codec version, MessagePack array}. 0xC1 is never
+ * used by MessagePack and cannot start a JSON document, so the two forms are told
+ * apart by their first byte and a namespace can be switched in either direction
+ * while old entries are still live.
+ *
+ * @param <T> the value type
+ */
+public class VersionedRedisSerializer<T> implements RedisSerializer<T> {
+
+    public static final int BINARY_MARKER = 0xC1;
+
+    private final Class<T> type;
+    private final BinaryCodec<T> codec;
+    private final RedisValueFormat writeFormat;
+    private final GenericJackson2JsonRedisSerializer json = new GenericJackson2JsonRedisSerializer();
+
+    public VersionedRedisSerializer(Class<T> type, BinaryCodec<T> codec, RedisValueFormat writeFormat) {
+        this.type = type;
+        this.codec = codec;
+        this.writeFormat = writeFormat;
+    }
+
+    @Override
+    public byte[] serialize(T value) throws SerializationException {
+        if (value == null) {
+            return null;
+        }
+        if (writeFormat == RedisValueFormat.JSON) {
+            return json.serialize(value);
+        }
+        MsgPack.Writer out = new MsgPack.Writer(64)
+            .rawByte(BINARY_MARKER)
+            .rawByte(codec.version());
+        codec.write(value, out);
+        return out.toByteArray();
+    }
+
+    @Override
+    public T deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if ((bytes[0] & 0xff) != BINARY_MARKER) {
+            return type.cast(json.deserialize(bytes));
+        }
+        try {
+            MsgPack.Reader in = new MsgPack.Reader(bytes, 1);
+            int version = in.rawByte();
+            return codec.read(version, in);
+        } catch (RuntimeException ex) {
+            throw new SerializationException("Could not decode binary " + type.getSimpleName(), ex);
+        }
+    }
+
+    @Override
+    public Class<?> getTargetType() {
+        return type;
+    }
+}
@@ -0,0 +1,28 @@
+-- Records a failed sign-in for one subject (an account or an IP) and locks it
+-- once it reaches the failure limit. Each failure past the limit doubles the lock.
+-- KEYS[1] = failure counter key, KEYS[2] = lock key
+-- ARGV[1] = max failures, ARGV[2] = counting window in millis,
+-- ARGV[3] = first lock in millis, ARGV[4] = longest lock in millis
+-- Returns the lock length in millis, or 0 if the subject is not locked.
+local limit = tonumber(ARGV[1])
+local window = tonumber(ARGV[2])
+
+local failures = redis.call('INCR', KEYS[1])
+if failures < limit then
+    if redis.call('PTTL', KEYS[1]) < 0 then
+        redis.call('PEXPIRE', KEYS[1], window)
+    end
+    return 0
+end
+
+local lock = math.min(tonumber(ARGV[3]) * 2 ^ math.min(failures - limit, 30), tonumber(ARGV[4]))
+lock = math.floor(lock)
+
+-- Server time, so every app node agrees on when the lock ends
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+redis.call('SET', KEYS[2], now + lock, 'PX', lock)
+-- Keep counting past the lock so the next failure locks for longer
+redis.call('PEXPIRE', KEYS[1], math.max(window, lock * 2))
+return lock
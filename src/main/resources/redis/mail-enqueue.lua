@@ -0,0 +1,14 @@
+-- Stores an outgoing mail and queues it on the outbox stream in one call.
+-- KEYS[1] = message hash key, KEYS[2] = outbox stream key
+-- ARGV[1] = message id, ARGV[2] = recipient, ARGV[3] = subject, ARGV[4] = body,
+-- ARGV[5] = retention in seconds, ARGV[6] = approximate max stream length, ARGV[7] = now (epoch millis)
+redis.call('HSET', KEYS[1],
+    'to', ARGV[2],
+    'subject', ARGV[3],
+    'body', ARGV[4],
+    'status', 'PENDING',
+    'attempts', 0,
+    'updatedAt', ARGV[7])
+redis.call('EXPIRE', KEYS[1], ARGV[5])
+
+return redis.call('XADD', KEYS[2], 'MAXLEN', '~', ARGV[6], '*', 'id', ARGV[1])
@@ -0,0 +1,12 @@
+-- Moves mails whose retry time has come from the retry set back onto the outbox stream.
+-- KEYS[1] = retry sorted set (score = due time), KEYS[2] = outbox stream key
+-- ARGV[1] = now (epoch millis), ARGV[2] = max number of mails to move
+-- Returns the number of mails requeued.
+local due = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1], 'LIMIT', 0, ARGV[2])
+
+for _, id in ipairs(due) do
+    redis.call('ZREM', KEYS[1], id)
+    redis.call('XADD', KEYS[2], '*', 'id', id)
+end
+
+return #due
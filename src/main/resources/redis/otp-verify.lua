@@ -0,0 +1,42 @@
+-- Verifies a submitted OTP and consumes it, with a bounded number of wrong guesses.
+-- KEYS[1] = OTP key (binary or JSON OtpData), KEYS[2] = wrong-attempt counter key
+-- ARGV[1] = submitted code, ARGV[2] = expected purpose, ARGV[3] = max wrong attempts
+-- Returns {status, attempts left} where status is
+-- 1 = verified, 0 = expired, -1 = purpose mismatch, -2 = wrong code, -3 = attempts exhausted.
+local raw = redis.call('GET', KEYS[1])
+if not raw then
+    return {0, 0}
+end
+
+local maxAttempts = tonumber(ARGV[3])
+local used = tonumber(redis.call('GET', KEYS[2]) or '0')
+local otp, purpose
+if string.byte(raw, 1) == 0xC1 then
+    -- Binary OtpData: marker, version, MessagePack [otp, purpose] (see OtpDataCodec)
+    local fields = cmsgpack.unpack(string.sub(raw, 3))
+    otp, purpose = fields[1], fields[2]
+else
+    local data = cjson.decode(raw)
+    otp, purpose = data['otp'], data['purpose']
+end
+
+if purpose ~= ARGV[2] then
+    return {-1, maxAttempts - used}
+end
+
+if otp == ARGV[1] then
+    redis.call('DEL', KEYS[1], KEYS[2])
+    return {1, 0}
+end
+
+used = redis.call('INCR', KEYS[2])
+if used == 1 then
+    -- The counter lives exactly as long as the OTP it guards
+    redis.call('PEXPIRE', KEYS[2], math.max(redis.call('PTTL', KEYS[1]), 1))
+end
+
+if used >= maxAttempts then
+    redis.call('DEL', KEYS[1], KEYS[2])
+    return {-3, 0}
+end
+return {-2, maxAttempts - used}
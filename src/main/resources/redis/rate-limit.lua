@@ -0,0 +1,49 @@
+-- OTP request limiter: window limit plus per-request cooldown in one atomic call.
+-- KEYS[1] = window key, KEYS[2] = cooldown key
+-- ARGV[1] = algorithm ('fixed' or 'sliding'), ARGV[2] = max requests per window,
+-- ARGV[3] = window length in millis, ARGV[4] = cooldown in millis, ARGV[5] = unique request id
+-- Returns {status, retry after in millis, requests left in the window}
+-- where status is 1 = allowed, 0 = window limit reached, -1 = in cooldown.
+local limit = tonumber(ARGV[2])
+local window = tonumber(ARGV[3])
+local remaining
+
+-- A limit of 0 (or less) blocks every request, whatever the algorithm
+if limit <= 0 then
+    return {0, window, 0}
+end
+
+if ARGV[1] == 'sliding' then
+    -- Server time, so every app node slides the same window
+    local time = redis.call('TIME')
+    local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+    redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', now - window)
+    local count = redis.call('ZCARD', KEYS[1])
+    if count >= limit then
+        local oldest = redis.call('ZRANGE', KEYS[1], 0, 0, 'WITHSCORES')
+        return {0, tonumber(oldest[2]) + window - now, 0}
+    end
+
+    redis.call('ZADD', KEYS[1], now, ARGV[5])
+    redis.call('PEXPIRE', KEYS[1], window)
+    remaining = limit - count - 1
+else
+    local count = redis.call('INCR', KEYS[1])
+    -- Also repairs a counter left without TTL
+    if redis.call('PTTL', KEYS[1]) < 0 then
+        redis.call('PEXPIRE', KEYS[1], window)
+    end
+    if count > limit then
+        return {0, redis.call('PTTL', KEYS[1]), 0}
+    end
+    remaining = limit - count
+end
+
+local cooldownLeft = redis.call('PTTL', KEYS[2])
+if cooldownLeft > 0 then
+    return {-1, cooldownLeft, remaining}
+end
+
+redis.call('SET', KEYS[2], 'LOCKED', 'PX', ARGV[4])
+return {1, 0, remaining}
@@ -0,0 +1,15 @@
+-- Atomically removes a signup session and releases its username reservation.
+-- KEYS[1] = username reservation key, KEYS[2] = signup session key (omitted on Redis Cluster,
+-- where the caller deletes it separately)
+-- ARGV[1] = reservation owner (email)
+-- The username is only released if it is still owned by this signup.
+if KEYS[2] then
+    redis.call('DEL', KEYS[2])
+end
+
+local owner = redis.call('GET', KEYS[1])
+if owner == ARGV[1] then
+    redis.call('DEL', KEYS[1])
+end
+
+return 1
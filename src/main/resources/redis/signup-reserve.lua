@@ -0,0 +1,15 @@
+-- Atomically reserves a username and an email for a pending signup.
+-- KEYS[1] = username reservation key, KEYS[2] = signup session key
+-- ARGV[1] = reservation owner (email), ARGV[2] = signup payload, ARGV[3] = TTL in seconds
+-- Returns 1 when reserved, 0 when the email already has a pending signup,
+-- -1 when the username is already reserved by another signup.
+if redis.call('EXISTS', KEYS[2]) == 1 then
+    return 0
+end
+
+if not redis.call('SET', KEYS[1], ARGV[1], 'NX', 'EX', ARGV[3]) then
+    return -1
+end
+
+redis.call('SET', KEYS[2], ARGV[2], 'EX', ARGV[3])
+return 1
@@ -0,0 +1,129 @@
+package com.dhanesh.auth.portal.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.dhanesh.auth.portal.util.TrigramIndex;
+
+/**
+ * Fuzzy lookup latency of the trigram index over synthetic catalogs of 10k, 100k and
+ * 1M courses. Titles mix common course vocabulary with generated words and tutors
+ * have generated names, drawn from pools that grow with the catalog (one distinct
+ * title word per 5 courses, one tutor per 20), so the vocabulary grows with it too.
+ * <p>
+ * Not part of the test suite. Run with:
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.dhanesh.auth.portal.benchmark.FuzzySearchBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class FuzzySearchBenchmark {
+
+    private static final String[] COMMON = {
+        "python", "java", "javascript", "kubernetes", "docker", "spring", "boot", "react",
+        "machine", "learning", "data", "science", "cloud", "aws", "azure", "security",
+        "web", "development", "android", "design", "sql", "mongodb", "devops", "linux",
+        "beginners", "advanced", "complete", "guide", "masterclass", "bootcamp", "fundamentals"
+    };
+    private static final String[] TAGS = {
+        "programming", "backend", "frontend", "ai", "databases", "networking", "mobile", "testing"
+    };
+    private static final String LETTERS = "abcdefghijklmnopqrstuvwxyz";
+
+    @Param({"10000", "100000", "1000000"})
+    public int courses;
+
+    private final TrigramIndex index = new TrigramIndex();
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        String[] titleWords = words(random, courses / 5);
+        String[] tutors = new String[courses / 20];
+        for (int i = 0; i < tutors.length; i++) {
+            tutors[i] = word(random) + " " + word(random);
+        }
+
+        List<TrigramIndex.Source> sources = new ArrayList<>(courses);
+        for (int i = 0; i < courses; i++) {
+            String title = pick(random, COMMON) + " " + pick(random, COMMON) + " " + pick(random, titleWords) + " " + pick(random, COMMON);
+            String tutor = pick(random, tutors);
+            sources.add(new TrigramIndex.Source(String.valueOf(i),
+                List.of(title, tutor, pick(random, TAGS), pick(random, TAGS))));
+        }
+        index.rebuild(sources);
+    }
+
+    @Benchmark
+    public List<TrigramIndex.Match> transposition() {
+        return index.lookup("pyhton", 1, 3);
+    }
+
+    @Benchmark
+    public List<TrigramIndex.Match> deletion() {
+        return index.lookup("kubernets", 2, 3);
+    }
+
+    @Benchmark
+    public List<TrigramIndex.Match> shortWord() {
+        return index.lookup("dockr", 1, 3);
+    }
+
+    @Benchmark
+    public List<TrigramIndex.Match> substitution() {
+        return index.lookup("javascrypt", 2, 3);
+    }
+
+    @Benchmark
+    public List<TrigramIndex.Match> noMatch() {
+        return index.lookup("qwzxvy", 1, 3);
+    }
+
+    private static String[] words(Random random, int count) {
+        String[] words = new String[count];
+        for (int i = 0; i < count; i++) {
+            words[i] = word(random);
+        }
+        return words;
+    }
+
+    private static String pick(Random random, String[] words) {
+        return words[random.nextInt(words.length)];
+    }
+
+    // Pronounceable-ish generated word, so the vocabulary grows with the catalog
+    private static String word(Random random) {
+        int length = 4 + random.nextInt(6);
+        StringBuilder word = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            word.append(i % 2 == 1 ? "aeiou".charAt(random.nextInt(5)) : LETTERS.charAt(random.nextInt(LETTERS.length())));
+        }
+        return word.toString();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(FuzzySearchBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
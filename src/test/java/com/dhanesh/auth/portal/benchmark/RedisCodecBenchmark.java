@@ -0,0 +1,118 @@
+package com.dhanesh.auth.portal.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import com.dhanesh.auth.portal.dto.auth.SignupTempData;
+import com.dhanesh.auth.portal.model.OtpData;
+import com.dhanesh.auth.portal.model.OtpPurpose;
+import com.dhanesh.auth.portal.model.RedisValueFormat;
+import com.dhanesh.auth.portal.util.codec.OtpDataCodec;
+import com.dhanesh.auth.portal.util.codec.SignupTempDataCodec;
+import com.dhanesh.auth.portal.util.codec.VersionedRedisSerializer;
+
+/**
+ * Encode/decode cost of the binary Redis codecs against the previous JSON serializer.
+ * Payload sizes are printed before the run.
+ * <p>
+ * Not part of the test suite. Run with:
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.dhanesh.auth.portal.benchmark.RedisCodecBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RedisCodecBenchmark {
+
+    private static final OtpData OTP = new OtpData("042137", OtpPurpose.VERIFICATION);
+    private static final SignupTempData SIGNUP = new SignupTempData(
+        "dhanesh76", "dhanesh76@example.com", "{bcrypt}$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy");
+
+    private final GenericJackson2JsonRedisSerializer json = new GenericJackson2JsonRedisSerializer();
+    private final VersionedRedisSerializer<OtpData> otpBinary =
+        new VersionedRedisSerializer<>(OtpData.class, new OtpDataCodec(), RedisValueFormat.BINARY);
+    private final VersionedRedisSerializer<SignupTempData> signupBinary =
+        new VersionedRedisSerializer<>(SignupTempData.class, new SignupTempDataCodec(), RedisValueFormat.BINARY);
+
+    private byte[] otpJsonBytes;
+    private byte[] otpBinaryBytes;
+    private byte[] signupJsonBytes;
+    private byte[] signupBinaryBytes;
+
+    @Setup
+    public void setup() {
+        otpJsonBytes = json.serialize(OTP);
+        otpBinaryBytes = otpBinary.serialize(OTP);
+        signupJsonBytes = json.serialize(SIGNUP);
+        signupBinaryBytes = signupBinary.serialize(SIGNUP);
+    }
+
+    @Benchmark
+    public byte[] otpEncodeJson() {
+        return json.serialize(OTP);
+    }
+
+    @Benchmark
+    public byte[] otpEncodeBinary() {
+        return otpBinary.serialize(OTP);
+    }
+
+    @Benchmark
+    public Object otpDecodeJson() {
+        return json.deserialize(otpJsonBytes);
+    }
+
+    @Benchmark
+    public OtpData otpDecodeBinary() {
+        return otpBinary.deserialize(otpBinaryBytes);
+    }
+
+    @Benchmark
+    public byte[] signupEncodeJson() {
+        return json.serialize(SIGNUP);
+    }
+
+    @Benchmark
+    public byte[] signupEncodeBinary() {
+        return signupBinary.serialize(SIGNUP);
+    }
+
+    @Benchmark
+    public Object signupDecodeJson() {
+        return json.deserialize(signupJsonBytes);
+    }
+
+    @Benchmark
+    public SignupTempData signupDecodeBinary() {
+        return signupBinary.deserialize(signupBinaryBytes);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        RedisCodecBenchmark sizes = new RedisCodecBenchmark();
+        sizes.setup();
+        System.out.printf("OtpData:        json %d bytes, binary %d bytes%n",
+            sizes.otpJsonBytes.length, sizes.otpBinaryBytes.length);
+        System.out.printf("SignupTempData: json %d bytes, binary %d bytes%n",
+            sizes.signupJsonBytes.length, sizes.signupBinaryBytes.length);
+
+        new Runner(new OptionsBuilder()
+            .include(RedisCodecBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
@@ -0,0 +1,69 @@
+package com.dhanesh.auth.portal.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.dhanesh.auth.portal.entity.Course;
+import com.dhanesh.auth.portal.model.CourseChangedEvent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Query correction keeps the text search syntax of the original query intact.
+ */
+class CourseFuzzySearchServiceTest {
+
+    private CourseFuzzySearchService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new CourseFuzzySearchService(null, null, null, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "maxDistance", 2);
+        ReflectionTestUtils.setField(service, "correctionsPerWord", 3);
+
+        Course course = Course.builder()
+            .id("c1")
+            .title("Python basics")
+            .tutor("Ada Lovelace")
+            .tags(List.of("spring", "java"))
+            .build();
+        service.onCourseChanged(new CourseChangedEvent(course.getId(), course));
+    }
+
+    @Test
+    void appendsCorrectionsToTheQueryAsTyped() {
+        assertThat(service.correct("Pyhton for beginners")).isEqualTo("Pyhton for beginners python");
+    }
+
+    @Test
+    void leavesKnownWordsAlone() {
+        assertThat(service.correct("java spring")).isEqualTo("java spring");
+    }
+
+    @Test
+    void keepsExcludedTermsExcludedAndDoesNotCorrectThem() {
+        assertThat(service.correct("java -spring")).isEqualTo("java -spring");
+        assertThat(service.correct("pyhton -sprng")).isEqualTo("pyhton -sprng python");
+    }
+
+    @Test
+    void keepsPhrasesAndCorrectsTheirWords() {
+        assertThat(service.correct("\"pyhton basics\" java")).isEqualTo("\"pyhton basics\" java python");
+    }
+
+    @Test
+    void doesNotCorrectExcludedPhrases() {
+        assertThat(service.correct("java -\"sprng pyhton\"")).isEqualTo("java -\"sprng pyhton\"");
+    }
+
+    @Test
+    void treatsHyphensInsideWordsAsSeparators() {
+        assertThat(CourseFuzzySearchService.includedWords("spring-boot -java \"a -b\""))
+            .containsExactly("spring", "boot", "a", "b");
+    }
+}
@@ -0,0 +1,180 @@
+package com.dhanesh.auth.portal.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.dhanesh.auth.portal.dto.FilterCourseRequest;
+import com.dhanesh.auth.portal.entity.Course;
+import com.dhanesh.auth.portal.entity.StudentProfile;
+import com.dhanesh.auth.portal.model.CourseRankingMode;
+import com.dhanesh.auth.portal.repository.StudentProfileRepository;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Pages through the same filter with every ranking mode, against a real MongoDB, and
+ * expects the same courses in the same order. Needs Docker, skipped without it.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class CourseRankingTest {
+
+    private static final String STUDENT = "student-1";
+    private static final int SIZE = 4;
+
+    @Container
+    static final MongoDBContainer mongo = new MongoDBContainer("mongo:6.0");
+
+    private static MongoClient client;
+    private static MongoTemplate mongoTemplate;
+    private static CourseCatalogService catalogService;
+    private static int courseCount;
+
+    @BeforeAll
+    static void startMongo() {
+        client = MongoClients.create(mongo.getConnectionString());
+        mongoTemplate = new MongoTemplate(client, "course-ranking-test");
+
+        List<Course> courses = courses();
+        courseCount = courses.size();
+        mongoTemplate.insertAll(courses);
+
+        catalogService = new CourseCatalogService(mongoTemplate, new SimpleMeterRegistry());
+        catalogService.init();
+        catalogService.refresh();
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        catalogService.shutdown();
+        client.close();
+    }
+
+    @Test
+    void everyModeServesTheSamePages() {
+        FilterCourseRequest all = new FilterCourseRequest(null, null, null, null, null, SIZE);
+
+        List<String> jvm = allPages(CourseRankingMode.JVM, all);
+        assertThat(jvm).hasSize(courseCount).doesNotHaveDuplicates();
+        assertThat(allPages(CourseRankingMode.AGGREGATION, all)).isEqualTo(jvm);
+        assertThat(allPages(CourseRankingMode.SNAPSHOT, all)).isEqualTo(jvm);
+    }
+
+    @Test
+    void everyModeServesTheSameFilteredPages() {
+        FilterCourseRequest java = new FilterCourseRequest(List.of("java", "spring"), null, null, null, null, SIZE);
+
+        List<String> jvm = allPages(CourseRankingMode.JVM, java);
+        assertThat(jvm).isNotEmpty().doesNotContain("no-tags");
+        assertThat(allPages(CourseRankingMode.AGGREGATION, java)).isEqualTo(jvm);
+        assertThat(allPages(CourseRankingMode.SNAPSHOT, java)).isEqualTo(jvm);
+    }
+
+    @Test
+    void breaksTiesByRatingThenId() {
+        List<String> ranked = allPages(CourseRankingMode.AGGREGATION,
+            new FilterCourseRequest(null, null, null, null, null, SIZE));
+
+        // Same score: the better rated first, then equal courses by id
+        assertThat(ranked.indexOf("tie-rating-high")).isLessThan(ranked.indexOf("tie-rating-low"));
+        assertThat(ranked.indexOf("tie-a")).isLessThan(ranked.indexOf("tie-b"));
+        assertThat(ranked.indexOf("tie-b")).isLessThan(ranked.indexOf("tie-c"));
+        // Only the recent one gets the recency boost
+        assertThat(ranked.indexOf("recent-inside")).isLessThan(ranked.indexOf("recent-outside"));
+    }
+
+    private static List<String> allPages(CourseRankingMode mode, FilterCourseRequest filter) {
+        CourseService service = courseService(mode);
+        List<String> ids = new ArrayList<>();
+        for (int page = 0; ; page++) {
+            List<Course> courses = service.filterCourses(
+                new FilterCourseRequest(filter.tags(), filter.platforms(), filter.difficulty(), filter.duration(), page, SIZE),
+                STUDENT);
+            courses.forEach(course -> ids.add(course.getId()));
+            if (courses.size() < SIZE) {
+                return ids;
+            }
+        }
+    }
+
+    private static CourseService courseService(CourseRankingMode mode) {
+        StudentProfileRepository profiles = mock(StudentProfileRepository.class);
+        when(profiles.findById(STUDENT)).thenReturn(Optional.of(StudentProfile.builder()
+            .id(STUDENT)
+            .primaryInterests(List.of("java", "spring"))
+            .preferredDifficultyLevel("beginner")
+            .preferredPlatform("Udemy")
+            .build()));
+
+        CourseService service = new CourseService(null, mongoTemplate, profiles, null, null,
+            event -> { }, new SimpleMeterRegistry(), catalogService);
+        ReflectionTestUtils.setField(service, "rankingMode", mode);
+        return service;
+    }
+
+    private static List<Course> courses() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Course> courses = new ArrayList<>();
+
+        // Identical courses: tied scores and ratings, only the id orders them
+        for (String id : List.of("tie-c", "tie-a", "tie-b")) {
+            courses.add(course(id, List.of("java"), "Coursera", "INTERMEDIATE", 4.0, 10, 2, now.minusDays(90)));
+        }
+
+        // Same score, 5.0 rating against 2.5 rating and one more matching tag
+        courses.add(course("tie-rating-low", List.of("java"), "edX", "ADVANCED", 2.5, 0, 0, now.minusDays(90)));
+        courses.add(course("tie-rating-high", List.of("go"), "edX", "ADVANCED", 5.0, 0, 0, now.minusDays(90)));
+
+        // Tags missing altogether, or repeated
+        courses.add(course("no-tags", null, "Udemy", "BEGINNER", 3.5, 5, 5, now.minusDays(90)));
+        courses.add(course("repeated-tags", List.of("java", "java", "spring"), "Udemy", "beginner", 3.0, 0, 0, now.minusDays(90)));
+
+        // Either side of the 30 day recency cutoff, by an hour
+        courses.add(course("recent-inside", List.of("python"), "YouTube", "BEGINNER", 4.5, 3, 1, now.minusDays(30).plusHours(1)));
+        courses.add(course("recent-outside", List.of("python"), "YouTube", "BEGINNER", 4.5, 3, 1, now.minusDays(30).minusHours(1)));
+        courses.add(course("never-updated", List.of("spring"), null, null, 0.0, 0, 0, null));
+
+        // Enough filler for several pages, many of them tied with each other
+        for (int i = 0; i < 30; i++) {
+            courses.add(course(String.format("filler-%02d", i), i % 3 == 0 ? List.of("spring") : List.of("rust"),
+                i % 2 == 0 ? "Udemy" : "Pluralsight", i % 4 == 0 ? "BEGINNER" : "ADVANCED",
+                (i % 5) + 0.5, i % 7, i % 4, now.minusDays(10L * (i % 6))));
+        }
+
+        Collections.shuffle(courses);
+        return courses;
+    }
+
+    private static Course course(String id, List<String> tags, String platform, String difficulty, double rating,
+                                 long saveCount, long shareCount, LocalDateTime lastUpdated) {
+        return Course.builder()
+            .id(id)
+            .title("Course " + id)
+            .tags(tags)
+            .platform(platform)
+            .difficultyLevel(difficulty)
+            .duration("SHORT")
+            .rating(rating)
+            .saveCount(saveCount)
+            .shareCount(shareCount)
+            .lastUpdated(lastUpdated)
+            .build();
+    }
+}
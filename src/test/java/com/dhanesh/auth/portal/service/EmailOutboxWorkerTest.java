@@ -0,0 +1,222 @@
+package com.dhanesh.auth.portal.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.spy;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.dhanesh.auth.portal.model.MailStatus;
+import com.dhanesh.auth.portal.service.Redis.RedisEmailOutboxService;
+import com.dhanesh.auth.portal.service.Redis.RedisKeys;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import redis.embedded.RedisServer;
+
+/**
+ * Runs the mail outbox end to end: a real Redis server for the stream, retry set and
+ * dead-letter stream, and an in-process SMTP server standing in for the mail provider.
+ */
+class EmailOutboxWorkerTest {
+
+    @RegisterExtension
+    static final GreenMailExtension smtp = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private static RedisServer redisServer;
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redis;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private JavaMailSenderImpl mailSender;
+    private RedisEmailOutboxService outbox;
+    private EmailOutboxWorker worker;
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        int port = freePort();
+        redisServer = new RedisServer(port);
+        redisServer.start();
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+        connectionFactory.afterPropertiesSet();
+        redis = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redis.getConnectionFactory().getConnection().serverCommands().flushAll();
+
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(smtp.getSmtp().getPort());
+        mailSender.setUsername("noreply@authportal.test");
+
+        SmtpSessionPool sessionPool = new SmtpSessionPool(mailSender, meterRegistry);
+        ReflectionTestUtils.setField(sessionPool, "maxSessions", 2);
+        ReflectionTestUtils.setField(sessionPool, "maxMessagesPerSession", 100);
+        ReflectionTestUtils.setField(sessionPool, "idleTimeoutSeconds", 30L);
+        ReflectionTestUtils.setField(sessionPool, "borrowTimeoutSeconds", 1L);
+        sessionPool.init();
+
+        outbox = new RedisEmailOutboxService(redis, redis);
+        ReflectionTestUtils.setField(outbox, "retentionMinutes", 60L);
+        ReflectionTestUtils.setField(outbox, "maxLength", 1000L);
+
+        worker = newWorker(outbox, new EmailService(mailSender, sessionPool), 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        worker.stop();
+    }
+
+    @Test
+    void sendsQueuedMailAndMarksItSent() throws Exception {
+        String id = outbox.enqueue("student@example.com", "Your OTP", "Use 123456");
+        assertThat(outbox.status(id)).contains(MailStatus.PENDING);
+
+        worker.start();
+
+        awaitStatus(id, MailStatus.SENT);
+        MimeMessage[] received = smtp.getReceivedMessages();
+        assertThat(received).hasSize(1);
+        assertThat(received[0].getSubject()).isEqualTo("Your OTP");
+        assertThat(received[0].getAllRecipients()[0].toString()).isEqualTo("student@example.com");
+        // The OTP does not outlive its delivery
+        assertThat(outbox.load(id)).doesNotContainKeys("subject", "body");
+        assertThat(pendingEntries()).isZero();
+    }
+
+    @Test
+    void retriesWithBackoffUntilTheServerAcceptsMail() throws Exception {
+        mailSender.setPort(freePort());
+        String id = outbox.enqueue("student@example.com", "Your OTP", "Use 123456");
+
+        worker.start();
+
+        awaitStatus(id, MailStatus.RETRYING);
+        Map<Object, Object> failed = outbox.load(id);
+        assertThat(failed.get("attempts")).isEqualTo("1");
+        assertThat(failed.get("lastError")).isNotNull();
+        long failedAt = Long.parseLong((String) failed.get("updatedAt"));
+        Double retryAt = redis.opsForZSet().score(RedisKeys.MAIL_RETRY, id);
+        assertThat(retryAt).isNotNull();
+        // backoff-initial is one second, plus up to 20% jitter
+        assertThat(retryAt.longValue() - failedAt).isBetween(1000L, 1300L);
+
+        mailSender.setPort(smtp.getSmtp().getPort());
+
+        awaitStatus(id, MailStatus.SENT);
+        assertThat(System.currentTimeMillis()).isGreaterThanOrEqualTo(retryAt.longValue());
+        assertThat(smtp.getReceivedMessages()).hasSize(1);
+        assertThat(outbox.load(id).get("attempts")).isEqualTo("1");
+    }
+
+    @Test
+    void deadLettersMailAfterMaxAttempts() {
+        mailSender.setPort(freePort());
+        String id = outbox.enqueue("student@example.com", "Your OTP", "Use 123456");
+
+        worker.start();
+
+        awaitStatus(id, MailStatus.DEAD);
+        // The status flips just before the dead-letter entry is written
+        await(() -> redis.opsForStream().size(RedisKeys.MAIL_DEAD_LETTER) > 0);
+        assertThat(outbox.load(id).get("attempts")).isEqualTo("3");
+        assertThat(redis.opsForStream().range(RedisKeys.MAIL_DEAD_LETTER, Range.unbounded()))
+            .singleElement()
+            .satisfies(entry -> assertThat(entry.getValue()).containsEntry("id", id));
+        assertThat(redis.opsForZSet().score(RedisKeys.MAIL_RETRY, id)).isNull();
+        assertThat(smtp.getReceivedMessages()).isEmpty();
+    }
+
+    @Test
+    void keepsEntryPendingWhenItCannotBeSettled() {
+        RedisEmailOutboxService failingOutbox = spy(outbox);
+        doThrow(new RedisSystemException("connection lost", null))
+            .doCallRealMethod()
+            .when(failingOutbox).markSent(anyString());
+        worker.stop();
+        worker = newWorker(failingOutbox, (EmailService) ReflectionTestUtils.getField(worker, "emailService"), 3);
+
+        String id = outbox.enqueue("student@example.com", "Your OTP", "Use 123456");
+        worker.start();
+
+        await(() -> smtp.getReceivedMessages().length == 1);
+        // Sent, but not recorded as sent: the entry must stay pending for redelivery
+        assertThat(outbox.status(id)).contains(MailStatus.PENDING);
+        await(() -> pendingEntries() == 1);
+        assertThat(pendingEntries()).isEqualTo(1);
+    }
+
+    private EmailOutboxWorker newWorker(RedisEmailOutboxService outbox, EmailService emailService, int maxAttempts) {
+        EmailOutboxWorker worker = new EmailOutboxWorker(outbox, emailService, meterRegistry);
+        ReflectionTestUtils.setField(worker, "enabled", true);
+        ReflectionTestUtils.setField(worker, "workerCount", 1);
+        ReflectionTestUtils.setField(worker, "maxAttempts", maxAttempts);
+        ReflectionTestUtils.setField(worker, "backoffInitialSeconds", 1L);
+        ReflectionTestUtils.setField(worker, "backoffMaxSeconds", 2L);
+        return worker;
+    }
+
+    private long pendingEntries() {
+        return Optional.ofNullable(redis.opsForStream().pending(RedisKeys.MAIL_OUTBOX, "mail-workers"))
+            .map(summary -> summary.getTotalPendingMessages())
+            .orElse(0L);
+    }
+
+    private void awaitStatus(String id, MailStatus status) {
+        await(() -> outbox.status(id).filter(status::equals).isPresent());
+    }
+
+    private static void await(Supplier<Boolean> condition) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(20).toNanos();
+        while (!condition.get()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Condition not met within 20 seconds");
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(ex);
+            }
+        }
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
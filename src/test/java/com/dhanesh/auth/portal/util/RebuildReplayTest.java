@@ -0,0 +1,55 @@
+package com.dhanesh.auth.portal.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Changes made during a rebuild are replayed after it, and only then.
+ */
+class RebuildReplayTest {
+
+    private final RebuildReplay<String> rebuildReplay = new RebuildReplay<>();
+    private final List<String> replayed = new ArrayList<>();
+
+    @Test
+    void replaysTheKeysChangedWhileTheRebuildRan() {
+        rebuildReplay.changed("before");
+
+        boolean ran = rebuildReplay.run(() -> {
+            rebuildReplay.changed("c1");
+            rebuildReplay.changed("c2");
+        }, replayed::add);
+
+        assertThat(ran).isTrue();
+        assertThat(replayed).containsExactly("c1", "c2");
+
+        rebuildReplay.changed("after");
+        rebuildReplay.run(() -> {}, replayed::add);
+        assertThat(replayed).containsExactly("c1", "c2");
+    }
+
+    @Test
+    void skipsARebuildRequestedWhileOneIsRunning() {
+        List<Boolean> nested = new ArrayList<>();
+
+        rebuildReplay.run(() -> nested.add(rebuildReplay.run(() -> {}, replayed::add)), replayed::add);
+
+        assertThat(nested).containsExactly(false);
+    }
+
+    @Test
+    void allowsANewRebuildAfterOneFails() {
+        assertThatThrownBy(() -> rebuildReplay.run(() -> {
+            rebuildReplay.changed("c1");
+            throw new IllegalStateException("source unavailable");
+        }, replayed::add)).isInstanceOf(IllegalStateException.class);
+
+        assertThat(replayed).isEmpty();
+        assertThat(rebuildReplay.run(() -> {}, replayed::add)).isTrue();
+    }
+}
@@ -0,0 +1,131 @@
+package com.dhanesh.auth.portal.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.dhanesh.auth.portal.util.SuggestionTrie.Item;
+import com.dhanesh.auth.portal.util.SuggestionTrie.Source;
+import com.dhanesh.auth.portal.util.SuggestionTrie.Suggestion;
+
+/**
+ * Suggestions follow owner updates, and prefixes past the depth cut still match
+ * exactly.
+ */
+class SuggestionTrieTest {
+
+    private static List<Item> titles(String... texts) {
+        return Arrays.stream(texts).map(text -> new Item("TITLE", text)).toList();
+    }
+
+    private static List<String> texts(List<Suggestion> suggestions) {
+        return suggestions.stream().map(Suggestion::text).toList();
+    }
+
+    @Test
+    void completesEveryWordOfASuggestionHeaviestFirst() {
+        SuggestionTrie trie = new SuggestionTrie(5, 10);
+        trie.put("c1", titles("Spring Boot"), 100);
+        trie.put("c2", titles("Java Spring"), 10);
+
+        assertThat(texts(trie.top("spr", 5))).containsExactly("Spring Boot", "Java Spring");
+        assertThat(texts(trie.top("boot", 5))).containsExactly("Spring Boot");
+        assertThat(trie.top("ring", 5)).isEmpty();
+    }
+
+    @Test
+    void sumsTheWeightsOfEveryOwnerOfAText() {
+        SuggestionTrie trie = new SuggestionTrie(5, 10);
+        trie.put("c1", titles("Spring Boot"), 3);
+        trie.put("c2", titles("spring  boot"), 4);
+
+        assertThat(trie.top("spring", 5)).containsExactly(new Suggestion("TITLE", "Spring Boot", 7));
+        assertThat(trie.size()).isEqualTo(1);
+    }
+
+    @Test
+    void putReplacesWhatAnOwnerContributed() {
+        SuggestionTrie trie = new SuggestionTrie(5, 10);
+        trie.put("c1", titles("Spring Boot"), 3);
+        trie.put("c1", titles("Django"), 5);
+
+        assertThat(trie.top("spring", 5)).isEmpty();
+        assertThat(trie.top("dj", 5)).containsExactly(new Suggestion("TITLE", "Django", 5));
+        assertThat(trie.size()).isEqualTo(1);
+    }
+
+    @Test
+    void removeDropsOnlyThatOwnersWeight() {
+        SuggestionTrie trie = new SuggestionTrie(5, 10);
+        trie.put("c1", titles("Spring Boot"), 3);
+        trie.put("c2", titles("Spring Boot", "Kotlin"), 4);
+
+        trie.remove("c2");
+
+        assertThat(trie.top("spring", 5)).containsExactly(new Suggestion("TITLE", "Spring Boot", 3));
+        assertThat(trie.top("kot", 5)).isEmpty();
+        assertThat(trie.size()).isEqualTo(1);
+
+        trie.remove("c1");
+        assertThat(trie.top("s", 5)).isEmpty();
+        assertThat(trie.size()).isZero();
+    }
+
+    @Test
+    void rebuildReplacesTheWholeIndex() {
+        SuggestionTrie trie = new SuggestionTrie(5, 10);
+        trie.put("old", titles("Spring Boot"), 3);
+
+        trie.rebuild(List.of(
+            new Source("c1", titles("Rust"), 2),
+            new Source("c2", titles("Rust", "Ruby"), 5)));
+
+        assertThat(trie.top("spring", 5)).isEmpty();
+        assertThat(trie.top("ru", 5)).containsExactly(
+            new Suggestion("TITLE", "Rust", 7),
+            new Suggestion("TITLE", "Ruby", 5));
+
+        trie.remove("c2");
+        assertThat(trie.top("ru", 5)).containsExactly(new Suggestion("TITLE", "Rust", 2));
+    }
+
+    @Test
+    void filtersPrefixesLongerThanTheMaxDepth() {
+        SuggestionTrie trie = new SuggestionTrie(2, 4);
+        trie.put("c1", titles("spring boot"), 100);
+        trie.put("c2", titles("springfield tour"), 50);
+        trie.put("c3", titles("spray painting"), 10);
+        trie.put("c4", titles("sprint planning"), 5);
+
+        // Beyond the cut the node keeps every suggestion, not only its top 2
+        assertThat(texts(trie.top("sprint", 5))).containsExactly("sprint planning");
+        assertThat(texts(trie.top("springf", 5))).containsExactly("springfield tour");
+        assertThat(texts(trie.top("spring", 5))).containsExactly("spring boot", "springfield tour");
+        assertThat(trie.top("springs", 5)).isEmpty();
+        assertThat(texts(trie.top("spr", 5))).containsExactly("spring boot", "springfield tour");
+    }
+
+    @Test
+    void returnsNothingForABlankPrefixOrANonPositiveLimit() {
+        SuggestionTrie trie = new SuggestionTrie(5, 10);
+        trie.put("c1", titles("Spring Boot"), 3);
+
+        assertThat(trie.top("  ", 5)).isEmpty();
+        assertThat(trie.top(null, 5)).isEmpty();
+        assertThat(trie.top("spring", 0)).isEmpty();
+        assertThat(trie.top("spring", -1)).isEmpty();
+    }
+
+    @Test
+    void keepsTheSameTextOfDifferentTypesApart() {
+        SuggestionTrie trie = new SuggestionTrie(5, 10);
+        trie.put("c1", List.of(new Item("TITLE", "Java"), new Item("TAG", "java")), 3);
+
+        assertThat(trie.top("ja", 5)).containsExactlyInAnyOrder(
+            new Suggestion("TITLE", "Java", 3),
+            new Suggestion("TAG", "java", 3));
+    }
+}
@@ -0,0 +1,132 @@
+package com.dhanesh.auth.portal.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.dhanesh.auth.portal.util.TrigramIndex.Match;
+import com.dhanesh.auth.portal.util.TrigramIndex.Source;
+
+/**
+ * Lookups find every word within the distance, transpositions and words too short
+ * to share a trigram included, and the vocabulary follows owner updates.
+ */
+class TrigramIndexTest {
+
+    private static List<String> words(List<Match> matches) {
+        return matches.stream().map(Match::word).toList();
+    }
+
+    @Test
+    void countsAnAdjacentTranspositionAsOneEdit() {
+        assertThat(TrigramIndex.distance("pyhton", "python", 2)).isEqualTo(1);
+        assertThat(TrigramIndex.distance("qsl", "sql", 2)).isEqualTo(1);
+        assertThat(TrigramIndex.distance("ab", "ba", 2)).isEqualTo(1);
+    }
+
+    @Test
+    void givesUpOnceTheDistanceMustExceedTheMaximum() {
+        assertThat(TrigramIndex.distance("kitten", "sitting", 3)).isEqualTo(3);
+        assertThat(TrigramIndex.distance("kitten", "sitting", 1)).isEqualTo(2);
+        assertThat(TrigramIndex.distance("abc", "xyzuvw", 2)).isEqualTo(3);
+    }
+
+    @Test
+    void findsTranspositionsThroughTheTrigramFilter() {
+        TrigramIndex index = new TrigramIndex();
+        index.put("c1", List.of("Python basics", "SQL"));
+
+        assertThat(index.lookup("pyhton", 1, 5)).containsExactly(new Match("python", 1, 1 - 1 / 6.0, 1));
+        assertThat(words(index.lookup("qsl", 1, 5))).containsExactly("sql");
+    }
+
+    @Test
+    void findsEditsAtTheEdgesOfAWord() {
+        TrigramIndex index = new TrigramIndex();
+        index.put("c1", List.of("java"));
+
+        // The padding gives the first and last letters trigrams of their own
+        assertThat(words(index.lookup("xava", 1, 5))).containsExactly("java");
+        assertThat(words(index.lookup("javx", 1, 5))).containsExactly("java");
+        assertThat(words(index.lookup("jav", 1, 5))).containsExactly("java");
+        assertThat(words(index.lookup("javas", 1, 5))).containsExactly("java");
+    }
+
+    @Test
+    void scansWordsOfNearbyLengthsWhenTheQueryIsTooShortToShareATrigram() {
+        TrigramIndex index = new TrigramIndex();
+        index.put("c1", List.of("ba", "abc", "abcd", "xy"));
+
+        // "ab" and "ba" have no trigram in common
+        assertThat(words(index.lookup("ab", 1, 5))).containsExactlyInAnyOrder("ba", "abc");
+        assertThat(index.lookup("ab", 0, 5)).isEmpty();
+    }
+
+    @Test
+    void ranksCloserThenMoreFrequentWordsFirst() {
+        TrigramIndex index = new TrigramIndex();
+        index.put("c1", List.of("spring", "sprint"));
+        index.put("c2", List.of("sprint"));
+
+        assertThat(words(index.lookup("sprinx", 1, 5))).containsExactly("sprint", "spring");
+        assertThat(words(index.lookup("spring", 1, 5))).containsExactly("spring", "sprint");
+        assertThat(words(index.lookup("sprinx", 1, 1))).containsExactly("sprint");
+    }
+
+    @Test
+    void returnsNothingForABlankQueryOrANonPositiveLimit() {
+        TrigramIndex index = new TrigramIndex();
+        index.put("c1", List.of("python"));
+
+        assertThat(index.lookup(" ", 1, 5)).isEmpty();
+        assertThat(index.lookup(null, 1, 5)).isEmpty();
+        assertThat(index.lookup("python", 1, 0)).isEmpty();
+        assertThat(index.lookup("python", 1, -1)).isEmpty();
+    }
+
+    @Test
+    void keepsAWordUntilItsLastOwnerIsRemoved() {
+        TrigramIndex index = new TrigramIndex();
+        index.put("c1", List.of("Java basics"));
+        index.put("c2", List.of("java"));
+
+        assertThat(index.lookup("java", 0, 5)).containsExactly(new Match("java", 0, 1.0, 2));
+
+        index.remove("c2");
+        assertThat(index.lookup("java", 0, 5)).containsExactly(new Match("java", 0, 1.0, 1));
+
+        index.remove("c1");
+        assertThat(index.contains("java")).isFalse();
+        assertThat(index.lookup("jav", 1, 5)).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void putReplacesTheWordsOfAnOwner() {
+        TrigramIndex index = new TrigramIndex();
+        index.put("c1", List.of("rust"));
+        index.put("c1", List.of("ruby", "Ruby"));
+
+        assertThat(index.contains("rust")).isFalse();
+        assertThat(index.contains("RUBY")).isTrue();
+        assertThat(words(index.lookup("rist", 1, 5))).isEmpty();
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void rebuildReplacesTheWholeIndex() {
+        TrigramIndex index = new TrigramIndex();
+        index.put("old", List.of("cobol"));
+
+        index.rebuild(List.of(new Source("c1", List.of("kotlin")), new Source("c2", List.of("kotlin", "scala"))));
+
+        assertThat(index.contains("cobol")).isFalse();
+        assertThat(index.lookup("kotlni", 1, 5)).containsExactly(new Match("kotlin", 1, 1 - 1 / 6.0, 2));
+
+        index.remove("c2");
+        assertThat(index.contains("scala")).isFalse();
+        assertThat(index.lookup("kotlin", 0, 5)).containsExactly(new Match("kotlin", 0, 1.0, 1));
+    }
+}